@@ -0,0 +1,187 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.doxia.sink.impl.SinkAdapter;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks each stage of the l10n status report separately, and the whole analysis, on a generated reactor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ReportPipelineBenchmark {
+
+    @Param("4")
+    private int modules;
+
+    @Param("20")
+    private int bundles;
+
+    @Param("500")
+    private int keys;
+
+    @Param("10")
+    private int locales;
+
+    @Param("0.8")
+    private double coverage;
+
+    private final Log log = new SystemStreamLog();
+
+    private SyntheticReactor reactor;
+
+    private List<BundleAnalyzer.Wrapper> scanned;
+
+    private List<StatusCache.BundleFile[]> pairs;
+
+    private List<String> pairLocales;
+
+    private List<BundleStatus> statuses;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        reactor = SyntheticReactor.generate(
+                Files.createTempDirectory("l10n-benchmark"), modules, bundles, keys, locales, coverage, 42L);
+        scanned = scan();
+
+        StatusCache cache = newCache();
+        pairs = new ArrayList<>();
+        pairLocales = new ArrayList<>();
+        for (Map.Entry<File, Map<String, File>> bundle : BundleAnalyzer.indexLocalizedFiles(
+                        scanned, BundleFormats.of(null))
+                .entrySet()) {
+            StatusCache.BundleFile base = cache.getFile(bundle.getKey());
+            for (Map.Entry<String, File> localized : bundle.getValue().entrySet()) {
+                pairs.add(new StatusCache.BundleFile[] {base, cache.getFile(localized.getValue())});
+                pairLocales.add(localized.getKey());
+            }
+        }
+
+        statuses = pipeline();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reactor.delete();
+    }
+
+    private StatusCache newCache() {
+        return StatusCache.load(null, "", log);
+    }
+
+    private BundleAnalyzer newAnalyzer() {
+        return new BundleAnalyzer(
+                reactor.getLocales(), false, null, null, BundleFormats.of(null), newCache(), false, log);
+    }
+
+    /**
+     * Lists the bundle files of every resource directory.
+     */
+    @Benchmark
+    public List<BundleAnalyzer.Wrapper> scan() throws Exception {
+        ResourceScanner scanner = new ResourceScanner(null, null, BundleFormats.of(null), log, new ReportMetrics());
+        List<BundleAnalyzer.Wrapper> files = new ArrayList<>();
+        for (Callable<List<BundleAnalyzer.Wrapper>> task : scanner.tasks(reactor.getResources())) {
+            files.addAll(task.call());
+        }
+        return files;
+    }
+
+    /**
+     * Parses every scanned bundle file.
+     */
+    @Benchmark
+    public void load(Blackhole blackhole) throws IOException {
+        StatusCache cache = newCache();
+        for (BundleAnalyzer.Wrapper wr : scanned) {
+            blackhole.consume(cache.getFile(wr.getFile()));
+        }
+    }
+
+    /**
+     * Compares every parsed localized bundle with its default bundle.
+     */
+    @Benchmark
+    public void diff(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < pairs.size(); i++) {
+            StatusCache.BundleFile[] pair = pairs.get(i);
+            blackhole.consume(StatusCache.compare(pair[0], pair[1], pairLocales.get(i)));
+        }
+    }
+
+    /**
+     * Renders the analysed statuses to a sink that discards all events.
+     */
+    @Benchmark
+    public void render() {
+        new L10NStatusReport.L10NStatusRenderer(
+                        new SinkAdapter(),
+                        L10NStatusReport.getBundle(Locale.ENGLISH),
+                        statuses,
+                        reactor.getLocales(),
+                        Locale.ENGLISH,
+                        modules > 1,
+                        0,
+                        null,
+                        null,
+                        null,
+                        null)
+                .render();
+    }
+
+    /**
+     * Scans, parses and compares everything, as the report does before rendering.
+     */
+    @Benchmark
+    public List<BundleStatus> pipeline() throws IOException {
+        return newAnalyzer()
+                .analyse(reactor.getResources(), Runtime.getRuntime().availableProcessors());
+    }
+}
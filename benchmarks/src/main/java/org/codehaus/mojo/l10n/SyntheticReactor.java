@@ -0,0 +1,265 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Generates a reactor of modules with synthetic resource bundles. Each localized bundle translates a
+ * configurable share of the default keys; of the remaining keys, half are missing and half keep the default
+ * value. About one percent of the localized keys are extra keys.
+ * <p>
+ * Running the class writes a reactor with <code>pom.xml</code> files, so the report can also be timed with
+ * a real <code>mvn site</code>:
+ * <pre>
+ * java -cp target/benchmarks.jar org.codehaus.mojo.l10n.SyntheticReactor dir modules bundles keys locales coverage
+ * </pre>
+ */
+final class SyntheticReactor {
+
+    private static final String[] WORDS = {
+        "file",
+        "open",
+        "save",
+        "cancel",
+        "project",
+        "window",
+        "error",
+        "warning",
+        "the",
+        "is",
+        "not",
+        "found",
+        "select",
+        "value",
+        "name",
+        "user",
+        "settings",
+        "a",
+        "of",
+        "for"
+    };
+
+    private final Path root;
+
+    private final Map<MavenProject, List<Resource>> resources = new LinkedHashMap<>();
+
+    private final List<String> locales = new ArrayList<>();
+
+    private SyntheticReactor(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Writes a reactor below the given directory.
+     *
+     * @param root the directory to write to
+     * @param modules the number of modules
+     * @param bundles the number of default bundles per module
+     * @param keys the number of keys per default bundle
+     * @param localeCount the number of locales every bundle is translated to
+     * @param coverage the share of keys translated in each localized bundle, between 0 and 1
+     * @param seed the seed for the generated content
+     */
+    static SyntheticReactor generate(
+            Path root, int modules, int bundles, int keys, int localeCount, double coverage, long seed)
+            throws IOException {
+        SyntheticReactor reactor = new SyntheticReactor(root);
+        for (int l = 0; l < localeCount; l++) {
+            reactor.locales.add(localeCode(l));
+        }
+        Random random = new Random(seed);
+        for (int m = 0; m < modules; m++) {
+            Path module = root.resolve("module" + m);
+            Path resourceDir = module.resolve("src/main/resources");
+            for (int b = 0; b < bundles; b++) {
+                Path dir = resourceDir.resolve("org/example/module" + m + "/pkg" + (b % 10));
+                Files.createDirectories(dir);
+                String[] values = new String[keys];
+                try (Writer out = Files.newBufferedWriter(dir.resolve("Bundle" + b + ".properties"))) {
+                    for (int k = 0; k < keys; k++) {
+                        values[k] = sentence(random);
+                        writeEntry(out, key(k), values[k]);
+                    }
+                }
+                for (String locale : reactor.locales) {
+                    Path file = dir.resolve("Bundle" + b + "_" + locale + ".properties");
+                    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+                        for (int k = 0; k < keys; k++) {
+                            double r = random.nextDouble();
+                            if (r < coverage) {
+                                writeEntry(out, key(k), locale + " " + values[k]);
+                            } else if (r < coverage + (1 - coverage) / 2) {
+                                writeEntry(out, key(k), values[k]);
+                            }
+                            if (random.nextInt(100) == 0) {
+                                writeEntry(out, "obsolete." + key(k), sentence(random));
+                            }
+                        }
+                    }
+                }
+            }
+            MavenProject project = new MavenProject();
+            project.setGroupId("org.example");
+            project.setArtifactId("module" + m);
+            project.setFile(module.resolve("pom.xml").toFile());
+            Resource resource = new Resource();
+            resource.setDirectory(resourceDir.toString());
+            reactor.resources.put(project, Collections.singletonList(resource));
+        }
+        return reactor;
+    }
+
+    /**
+     * @return a two letter code, as recognized for localized bundle files
+     */
+    private static String localeCode(int index) {
+        return "" + (char) ('a' + (index / 26) % 26) + (char) ('a' + index % 26);
+    }
+
+    private static String key(int index) {
+        return "section" + (index / 50) + ".item" + index + ".label";
+    }
+
+    private static String sentence(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int words = 1 + random.nextInt(8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static void writeEntry(Writer out, String key, String value) throws IOException {
+        out.write(key);
+        out.write('=');
+        out.write(value);
+        out.write('\n');
+    }
+
+    Map<MavenProject, List<Resource>> getResources() {
+        return resources;
+    }
+
+    List<String> getLocales() {
+        return locales;
+    }
+
+    /**
+     * Writes an aggregator <code>pom.xml</code> and one per module, with the report configured for all locales.
+     */
+    void writePoms(String pluginVersion) throws IOException {
+        StringBuilder modules = new StringBuilder();
+        for (MavenProject project : resources.keySet()) {
+            modules.append("    <module>").append(project.getArtifactId()).append("</module>\n");
+            writePom(project.getFile().toPath(), project.getArtifactId(), "jar", "", "");
+        }
+        StringBuilder config = new StringBuilder();
+        for (String locale : locales) {
+            config.append("            <locale>").append(locale).append("</locale>\n");
+        }
+        String reporting = "  <reporting>\n    <plugins>\n      <plugin>\n"
+                + "        <groupId>org.codehaus.mojo</groupId>\n"
+                + "        <artifactId>l10n-maven-plugin</artifactId>\n"
+                + "        <version>" + pluginVersion + "</version>\n"
+                + "        <configuration>\n          <aggregate>true</aggregate>\n          <locales>\n"
+                + config + "          </locales>\n        </configuration>\n"
+                + "      </plugin>\n    </plugins>\n  </reporting>\n";
+        writePom(root.resolve("pom.xml"), "reactor", "pom", "  <modules>\n" + modules + "  </modules>\n", reporting);
+    }
+
+    private static void writePom(Path file, String artifactId, String packaging, String modules, String reporting)
+            throws IOException {
+        String pom = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "  <groupId>org.example</groupId>\n"
+                + "  <artifactId>" + artifactId + "</artifactId>\n"
+                + "  <version>1.0-SNAPSHOT</version>\n"
+                + "  <packaging>" + packaging + "</packaging>\n"
+                + modules + reporting
+                + "</project>\n";
+        Files.createDirectories(file.getParent());
+        Files.write(file, pom.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Deletes the generated reactor.
+     */
+    void delete() throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 6) {
+            System.err.println("Usage: SyntheticReactor <dir> <modules> <bundles> <keys> <locales> <coverage>");
+            System.exit(1);
+        }
+        SyntheticReactor reactor = generate(
+                Paths.get(args[0]),
+                Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]),
+                Integer.parseInt(args[3]),
+                Integer.parseInt(args[4]),
+                Double.parseDouble(args[5]),
+                42L);
+        Properties pluginPom = new Properties();
+        try (InputStream in = SyntheticReactor.class.getResourceAsStream(
+                "/META-INF/maven/org.codehaus.mojo/l10n-maven-plugin/pom.properties")) {
+            pluginPom.load(in);
+        }
+        reactor.writePoms(pluginPom.getProperty("version"));
+        System.out.println("Generated reactor in " + new File(args[0]).getAbsolutePath());
+    }
+}
@@ -0,0 +1,27 @@
+def summary = new File( basedir, "target/l10n-status.json" )
+assert summary.exists()
+
+def summaryBody = summary.text
+// nested JSON keys are joined with dots, so menu.close is missing and extra is not in the default bundle
+assert summaryBody.contains( '{"path": "i18n/app.json", "keys": 3, "locales": {"de": {"present": true, "missing": 1, "additional": 1, "nonTranslated": 1,' )
+// the fuzzy message counts as non-translated
+assert summaryBody.contains( '{"path": "po/messages.pot", "keys": 2, "locales": {"de": {"present": true, "missing": 0, "additional": 0, "nonTranslated": 1,' )
+assert summaryBody.contains( '{"path": "xml/labels.xml", "keys": 2, "locales": {"de": {"present": true, "missing": 1, "additional": 0, "nonTranslated": 0,' )
+// localized files are no bundles of their own
+assert !summaryBody.contains( 'app.de.json' )
+assert !summaryBody.contains( 'de.po' )
+
+// a JSON bundle may hold numbers and booleans besides its strings
+assert summaryBody.contains( '{"path": "i18n/settings.json", "keys": 3, "locales": {"de": {"present": true, "missing": 0, "additional": 0,' )
+
+// configuration files with the suffix of a format are skipped without an error
+assert !summaryBody.contains( 'logback.xml' )
+assert !summaryBody.contains( 'package.json' )
+assert !summaryBody.contains( 'limits.json' )
+def log = new File( basedir, "build.log" ).text
+assert !log.contains( '[ERROR]' )
+assert log.contains( 'Compiled 4 resource bundles' )
+assert !new File( basedir, "target/classes/logback.l10nb" ).exists()
+assert !new File( basedir, "target/classes/package.l10nb" ).exists()
+assert !new File( basedir, "target/classes/limits.l10nb" ).exists()
+assert new File( basedir, "target/classes/i18n/settings_de.l10nb" ).exists()
@@ -0,0 +1,14 @@
+// the summary is written even though the check fails
+def summary = new File( basedir, "target/l10n-status.json" )
+assert summary.exists()
+
+def summaryBody = summary.text
+assert summaryBody.contains( '"project": "org.codehaus.mojo.it:check-test"' )
+assert summaryBody.contains( '"path": "test.properties"' )
+assert summaryBody.contains( '{"locale": "en", "coverage": 100.00' )
+assert summaryBody.contains( '{"locale": "de", "coverage": 0.00' )
+
+// only the locale below the threshold is reported
+def log = new File( basedir, "build.log" ).text
+assert log.contains( 'Locale de translates 0.0% of the keys, less than the required 100.0%' )
+assert !log.contains( 'Locale en translates' )
@@ -0,0 +1,84 @@
+import java.util.zip.ZipFile
+
+def dir = new File( basedir, "target/classes/org/example" )
+
+// one compiled bundle per remaining locale, each starting with the magic number
+[ "messages.l10nb", "messages_de_CH.l10nb", "labels.l10nb", "labels_de.l10nb", "labels_de_CH.l10nb" ].each {
+    def file = new File( dir, it )
+    assert file.isFile()
+    def bytes = file.bytes
+    assert bytes[0] == 0x4c && bytes[1] == 0x31 && bytes[2] == 0x30 && bytes[3] == 0x43
+}
+
+// de_CH includes the key it inherits from de
+def labels = new String( new File( dir, "labels_de_CH.l10nb" ).bytes, "UTF-8" )
+assert labels.contains( 'Titel (CH)' )
+assert labels.contains( 'Bestätigen' )
+assert !labels.contains( 'OK' )
+
+// bundles of a resource with a target path are compiled below that path
+[ "i18n/errors.l10nb", "i18n/errors_de.l10nb" ].each {
+    assert new File( dir, it ).isFile()
+}
+assert !new File( basedir, "target/classes/errors.l10nb" ).exists()
+
+def log = new File( basedir, "build.log" ).text
+assert log.contains( 'Compiled 3 resource bundles, 8 files changed' )
+
+// once its parent locale is deleted, de_CH is compiled again and inherits from the default bundle,
+// although its own file is older than the compiled one; the compiled de bundle is deleted and the
+// unchanged bundles are not written again
+def deCh = new String( new File( dir, "messages_de_CH.l10nb" ).bytes, "UTF-8" )
+assert deCh.contains( 'Grüezi' )
+assert deCh.contains( 'Goodbye' )
+assert !deCh.contains( 'Auf Wiedersehen' )
+assert !new File( dir, "messages_de.l10nb" ).exists()
+assert log.contains( 'Compiled 3 resource bundles, 2 files changed' )
+
+// the runtime artifact holds the runtime package only
+def runtimeJar = new File( localRepositoryPath,
+        "org/codehaus/mojo/l10n-maven-plugin/${pluginVersion}/l10n-maven-plugin-${pluginVersion}-runtime.jar" )
+assert runtimeJar.isFile()
+def classes = new ZipFile( runtimeJar ).withCloseable { jar ->
+    jar.entries().collect { it.name }.findAll { it.endsWith( '.class' ) }
+}
+assert classes.sort() == [ 'org/codehaus/mojo/l10n/runtime/CompiledBundleControl.class',
+                           'org/codehaus/mojo/l10n/runtime/CompiledResourceBundle.class' ]
+
+// the compiled bundles are loaded through the runtime artifact alone, and only the compiled files are in
+// target/classes as process-resources did not run
+def classpath = [ runtimeJar, new File( basedir, "target/classes" ) ].collect { it.toURI().toURL() }
+def loader = new URLClassLoader( classpath as URL[], (ClassLoader) null )
+def control = loader.loadClass( 'org.codehaus.mojo.l10n.runtime.CompiledBundleControl' ).newInstance()
+def bundle = { String name, Locale locale ->
+    def loaded = ResourceBundle.getBundle( name, locale, loader, control )
+    assert loaded.class.name == 'org.codehaus.mojo.l10n.runtime.CompiledResourceBundle'
+    loaded
+}
+
+// de_CH inherits from de, which inherits from the default bundle
+def labelsDeCh = bundle( 'org.example.labels', new Locale( 'de', 'CH' ) )
+assert labelsDeCh.locale == new Locale( 'de', 'CH' )
+assert labelsDeCh.getString( 'title' ) == 'Titel (CH)'
+assert labelsDeCh.getString( 'confirm' ) == 'Best\u00e4tigen'
+assert labelsDeCh.keySet() == [ 'title', 'confirm' ] as Set
+def labelsDe = bundle( 'org.example.labels', Locale.GERMAN )
+assert labelsDe.getString( 'title' ) == 'Titel'
+
+// a key that no level holds is missing
+try {
+    labelsDeCh.getString( 'cancel' )
+    assert false : 'cancel is not a key of any level'
+} catch ( MissingResourceException expected ) {
+    assert expected.key == 'cancel'
+}
+
+// without de, de_CH inherits from the default bundle
+def messagesDeCh = bundle( 'org.example.messages', new Locale( 'de', 'CH' ) )
+assert messagesDeCh.getString( 'greeting' ) == 'Gr\u00fcezi'
+assert messagesDeCh.getString( 'farewell' ) == 'Goodbye'
+
+// bundles compiled below a target path are found under their resource bundle name
+def errorsDe = bundle( 'org.example.i18n.errors', Locale.GERMAN )
+assert errorsDe.getString( 'invalid' ) == 'Ung\u00fcltig'
+assert errorsDe.getString( 'required' ) == 'Pflichtfeld'
@@ -0,0 +1,11 @@
+def report = new File( basedir, "target/site/l10n-status.html" )
+assert report.exists()
+
+def reportBody = report.text
+assert reportBody.contains( 'test.properties' )
+assert reportBody.contains( 'mod1' )
+assert reportBody.contains( 'mod2' )
+
+// the bundle added to the nested directory is part of the second report
+assert new File( basedir, "mod1/src/main/resources/nested/extra.properties" ).isFile()
+assert reportBody.contains( 'nested/extra.properties' )
@@ -27,3 +27,7 @@ def reportMod2 = new File( reportMod2Site, "l10n-status.html" )
 
 assert reportMod2Site.isDirectory()
 assert !reportMod2.exists()
+
+// the status of every module is stored for the next aggregated report
+assert new File( basedir, "mod1/target/l10n-status.bin" ).isFile()
+assert new File( basedir, "mod2/target/l10n-status.bin" ).isFile()
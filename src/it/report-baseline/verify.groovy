@@ -0,0 +1,18 @@
+assert new File( basedir, "target/l10n-baseline.bin" ).isFile()
+
+def report = new File( basedir, "target/site/l10n-status.html" )
+assert report.exists()
+
+def reportBody = report.text
+
+// only the newly discovered locale has changes since the baseline, and the keys missing from the extra
+// bundle in en are known from its own baseline
+assert reportBody.contains( 'since the baseline of' )
+assert reportBody.contains( '<td>fr</td>' )
+assert !reportBody.contains( '<td>en</td>' )
+assert reportBody.contains( '<li>test.key1</li>' )
+assert reportBody.contains( '<li>test.other</li>' )
+assert reportBody.contains( '<li>test.extra</li>' )
+
+// the full status is not rendered
+assert !reportBody.contains( 'L10n status summary table' )
@@ -0,0 +1,9 @@
+def report = new File( basedir, "target/site/l10n-status.html" )
+assert report.exists()
+
+def reportBody = report.text
+
+// en_GB inherits the keys it does not define from en, as ResourceBundle would
+def enGb = reportBody.substring( reportBody.indexOf( 'en_GB - English (United Kingdom)' ) )
+assert enGb.contains( 'Inherited Keys' )
+assert enGb.contains( '<li>test.message</li>' )
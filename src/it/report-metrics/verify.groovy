@@ -0,0 +1,20 @@
+assert new File( basedir, "target/site/l10n-status.html" ).isFile()
+
+// the timings and counters are written as JSON, with one bundle held at most
+def metrics = new groovy.json.JsonSlurper().parse( new File( basedir, "target/l10n-metrics.json" ) )
+assert metrics.elapsed.containsKey( 'scan' )
+assert metrics.elapsed.containsKey( 'analyse' )
+assert metrics.elapsed.containsKey( 'render' )
+assert metrics.storedProjects == 0
+assert metrics.peakBundlesInMemory == 1
+assert metrics.total.scannedFiles == 3
+assert metrics.total.loadedFiles == 3
+assert metrics.locales.en.loadedFiles == 1
+assert metrics.total.cachedFiles == 0
+assert metrics.projects.size() == 1
+assert metrics.locales.keySet() == ['en', 'de'] as Set
+
+// rendering is timed per project, and per page in multi-page reports only
+assert metrics.total.containsKey( 'render' )
+assert metrics.projects.values().every { it.containsKey( 'render' ) }
+assert metrics.pages.isEmpty()
@@ -0,0 +1,30 @@
+def site = new File( basedir, "target/site" )
+
+// the summary page lists the totals of each module and links to its page
+def summary = new File( site, "l10n-status.html" ).text
+assert summary.contains( 'l10n-status-module-mod1.html' )
+assert summary.contains( 'l10n-status-module-mod2.html' )
+assert summary.contains( 'l10n-status-unused.html' )
+assert !summary.contains( 'test.properties' )
+
+// every module has a summary page and a page per locale
+['mod1', 'mod2'].each { mod ->
+    def page = new File( site, "l10n-status-module-${mod}.html" )
+    assert page.exists()
+    assert page.text.contains( 'test.properties' )
+    assert page.text.contains( "l10n-status-module-${mod}-de.html" )
+    ['en', 'de'].each { loc ->
+        def localePage = new File( site, "l10n-status-module-${mod}-${loc}.html" )
+        assert localePage.exists()
+        assert localePage.text.contains( 'test.properties' )
+    }
+}
+assert new File( site, "l10n-status-module-mod1-de.html" ).text.contains( 'de - German' )
+
+assert new File( site, "l10n-status-unused.html" ).exists()
+
+// every page is timed
+def metrics = new groovy.json.JsonSlurper().parse( new File( basedir, "target/l10n-metrics.json" ) )
+assert metrics.pages.keySet() == [ 'l10n-status', 'l10n-status-unused',
+                                   'l10n-status-module-mod1', 'l10n-status-module-mod1-en', 'l10n-status-module-mod1-de',
+                                   'l10n-status-module-mod2', 'l10n-status-module-mod2-en', 'l10n-status-module-mod2-de' ] as Set
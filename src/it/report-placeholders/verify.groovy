@@ -0,0 +1,8 @@
+def report = new File( basedir, "target/site/l10n-status.html" )
+assert report.exists()
+
+def reportBody = report.text
+
+// the translation that drops the placeholder of the default value is listed with its value
+assert reportBody.contains( 'Placeholder Mismatches' )
+assert reportBody.contains( 'test.message: &quot;files&quot;' )
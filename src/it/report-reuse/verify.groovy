@@ -0,0 +1,17 @@
+def report = new File( basedir, "target/site/l10n-status.html" )
+assert report.exists()
+
+def reuse = report.text.substring( report.text.indexOf( 'Reusable Translations' ) )
+assert reuse.contains( '3 missing or non-changed keys' )
+
+// the missing key and the non-changed key take the translations of the other bundle
+assert reuse.contains( 'dialog.abort: &quot;Abbrechen&quot;' )
+assert reuse.contains( 'dialog.store: &quot;Speichern&quot;' )
+assert reuse.contains( 'button.cancel' )
+
+// keys without a translated default value elsewhere are not listed
+assert !reuse.contains( 'dialog.title' )
+
+// a translation of the bundle itself is not suggested, another bundle translating the same value is
+assert reuse.contains( 'dialog.dismiss: &quot;Zu&quot;' )
+assert !reuse.contains( 'Schlie' )
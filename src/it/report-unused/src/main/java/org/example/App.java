@@ -0,0 +1,9 @@
+package org.example;
+
+import java.util.ResourceBundle;
+
+public class App {
+    public static void main(String[] args) {
+        System.out.println(ResourceBundle.getBundle("test").getString("test.key1"));
+    }
+}
@@ -0,0 +1,10 @@
+def report = new File( basedir, "target/site/l10n-status.html" )
+assert report.exists()
+
+def reportBody = report.text
+
+// only the key that is not referenced in the sources is listed as unused
+def unused = reportBody.substring( reportBody.indexOf( 'Unused Keys' ) )
+assert unused.contains( '1 of 2 keys are not referenced' )
+assert unused.contains( 'test.unused' )
+assert !unused.contains( 'test.key1' )
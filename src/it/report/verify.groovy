@@ -9,3 +9,6 @@ assert reportBody.contains( 'L10n Status' )
 assert reportBody.contains( 'test.properties' )
 assert reportBody.contains( 'en - English' )
 assert reportBody.contains( 'de - German' )
+
+// analysed bundles are cached for the next run
+assert new File( basedir, "target/l10n-status.cache" ).isFile()
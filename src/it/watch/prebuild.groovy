@@ -0,0 +1,48 @@
+import java.nio.file.Files
+
+// edits the bundles while the goal is watching, and keeps a copy of the summary after each change
+def resources = new File( basedir, "src/main/resources" )
+def summary = new File( basedir, "target/l10n-status.json" )
+def buildLog = new File( basedir, "build.log" )
+
+// the goal logs this line once the initial summary is written and the directories are registered, however
+// long Maven takes to start
+def awaitWatching = {
+    while ( !( buildLog.exists() && buildLog.text.contains( 'Watching 1 directories for changes' ) ) ) {
+        Thread.sleep( 50 )
+    }
+    return summary.text
+}
+
+// each change is given 20 seconds to be picked up, which the watch timeout in the POM leaves room for
+def awaitUpdate = { String previous ->
+    long deadline = System.currentTimeMillis() + 20000
+    while ( System.currentTimeMillis() < deadline ) {
+        if ( summary.exists() && summary.text != previous && summary.text.trim().endsWith( '}' ) ) {
+            return summary.text
+        }
+        Thread.sleep( 50 )
+    }
+    return previous
+}
+
+def steps = [
+    // change the default bundle
+    { new File( resources, "test.properties" ).text = "test.key1 = Key value\ntest.key2 = Second value\n" },
+    // add a localized bundle
+    { new File( resources, "test_de.properties" ).text = "test.key1 = Schl\\u00fcsselwert\ntest.key2 = Zweiter Wert\n" },
+    // delete a localized bundle
+    { Files.delete( new File( resources, "test_en.properties" ).toPath() ) }
+]
+
+def thread = new Thread( {
+    def text = awaitWatching()
+    steps.eachWithIndex { step, i ->
+        step()
+        text = awaitUpdate( text )
+        new File( basedir, "target/l10n-status-${i + 1}.json" ).text = text
+    }
+} )
+thread.daemon = true
+thread.start()
+return true
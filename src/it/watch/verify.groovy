@@ -0,0 +1,37 @@
+import groovy.json.JsonSlurper
+
+// the initial analysis is written before the goal starts watching
+def log = new File( basedir, "build.log" ).text
+assert log.contains( 'Watching 1 directories for changes' )
+
+def status = { int step ->
+    def file = new File( basedir, "target/l10n-status-${step}.json" )
+    assert file.exists()
+    new JsonSlurper().parse( file )
+}
+
+// a changed default bundle is analysed again
+def changed = status( 1 )
+assert changed.keys == 2
+assert changed.locales.find { it.locale == 'en' }.missing == 1
+assert changed.locales.find { it.locale == 'de' }.missing == 2
+assert log.contains( 'test.properties: en (M 1, E 0, NT 0, P 0, I 0) de (M 2, E 0, NT 0, P 0, I 0)' )
+
+// an added localized bundle is found
+def added = status( 2 )
+assert added.bundles.size() == 1
+assert added.bundles[0].locales.de.present
+assert added.locales.find { it.locale == 'de' }.translated == 2
+assert added.locales.find { it.locale == 'en' }.missing == 1
+assert log.contains( 'test.properties: en (M 1, E 0, NT 0, P 0, I 0) de (M 0, E 0, NT 0, P 0, I 0)' )
+
+// a deleted localized bundle is missing again
+def deleted = status( 3 )
+assert !deleted.bundles[0].locales.en.present
+assert deleted.locales.find { it.locale == 'en' }.missing == 2
+assert deleted.locales.find { it.locale == 'de' }.translated == 2
+assert log.contains( 'test.properties: en (M 2, E 0, NT 0, P 0, I 0) de (M 0, E 0, NT 0, P 0, I 0)' )
+
+// every change is analysed incrementally, and the goal returns once the watch timeout has passed
+assert ( log =~ /L10n status updated in/ ).count == 4
+assert log.contains( 'BUILD SUCCESS' )
@@ -0,0 +1,221 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact snapshot of an analysis, to compare later analyses with. For every bundle and locale it holds the
+ * sorted fingerprints of the missing, extra, non-changed and mismatched keys, so that keys which became one
+ * of these since the snapshot are found without the old bundle files.
+ *
+ * @since 1.2.1
+ */
+final class Baseline {
+
+    private static final int MAGIC = 0x4c313042;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int KINDS = 4;
+
+    private static final long[] NONE = {};
+
+    private final long created;
+
+    /**
+     * The fingerprints of each kind of key, by bundle and locale.
+     */
+    private final Map<String, Map<String, long[][]>> bundles;
+
+    private Baseline(long created, Map<String, Map<String, long[][]>> bundles) {
+        this.created = created;
+        this.bundles = bundles;
+    }
+
+    /**
+     * @return the time the snapshot was taken, in milliseconds since the epoch
+     */
+    long getCreated() {
+        return created;
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write(File, Iterable)}.
+     */
+    static Baseline read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException(file + " is not an l10n baseline of this plugin version");
+            }
+            long created = in.readLong();
+            Map<String, Map<String, long[][]>> bundles = new HashMap<>();
+            while (in.readBoolean()) {
+                String id = StatusCache.readString(in);
+                Map<String, long[][]> locales = new HashMap<>();
+                int localeCount = in.readInt();
+                for (int i = 0; i < localeCount; i++) {
+                    String locale = StatusCache.readString(in);
+                    long[][] kinds = new long[KINDS][];
+                    for (int k = 0; k < KINDS; k++) {
+                        kinds[k] = new long[in.readInt()];
+                        for (int n = 0; n < kinds[k].length; n++) {
+                            kinds[k][n] = in.readLong();
+                        }
+                    }
+                    locales.put(locale, kinds);
+                }
+                bundles.put(id, locales);
+            }
+            return new Baseline(created, bundles);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the analysed bundles, replacing the file only once it is complete.
+     */
+    static void write(File file, Iterable<BundleStatus> statuses) throws IOException {
+        StatusCache.write(file, out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            for (BundleStatus status : statuses) {
+                out.writeBoolean(true);
+                StatusCache.writeString(out, id(status));
+                out.writeInt(status.getDiffs().size());
+                for (LocaleDiff diff : status.getDiffs()) {
+                    StatusCache.writeString(out, diff.getLocale());
+                    for (String[] keys : kinds(diff)) {
+                        long[] fingerprints = fingerprints(keys);
+                        out.writeInt(fingerprints.length);
+                        for (long fingerprint : fingerprints) {
+                            out.writeLong(fingerprint);
+                        }
+                    }
+                }
+            }
+            out.writeBoolean(false);
+        });
+    }
+
+    /**
+     * Compares a diff with the snapshot of the same bundle and locale. Everything is new for bundles and
+     * locales that are not part of the snapshot.
+     */
+    Delta compare(BundleStatus status, LocaleDiff diff) {
+        Map<String, long[][]> locales = bundles.get(id(status));
+        long[][] known = locales != null ? locales.get(diff.getLocale()) : null;
+        String[][] kinds = kinds(diff);
+        String[][] added = new String[KINDS][];
+        for (int k = 0; k < KINDS; k++) {
+            long[] fingerprints = known != null ? known[k] : NONE;
+            List<String> keys = new ArrayList<>();
+            for (String key : kinds[k]) {
+                if (Arrays.binarySearch(fingerprints, Fingerprint.of(key)) < 0) {
+                    keys.add(key);
+                }
+            }
+            added[k] = keys.toArray(new String[0]);
+        }
+        return new Delta(added);
+    }
+
+    /**
+     * Identifies a bundle independently of the project version and the location of the build, by its resource
+     * directory relative to the project and its path within that directory.
+     */
+    private static String id(BundleStatus status) {
+        Path directory = status.getFile().getAbsoluteFile().toPath();
+        for (int i = Paths.get(status.getPath()).getNameCount(); i > 0; i--) {
+            directory = directory.getParent();
+        }
+        Path basedir = status.getProject().getBasedir().getAbsoluteFile().toPath();
+        Path resources = directory.startsWith(basedir) ? basedir.relativize(directory) : directory;
+        return status.getProject().getGroupId()
+                + ':'
+                + status.getProject().getArtifactId()
+                + ':'
+                + resources.toString().replace('\\', '/')
+                + ':'
+                + status.getPath().replace('\\', '/');
+    }
+
+    private static String[][] kinds(LocaleDiff diff) {
+        return new String[][] {diff.getMissing(), diff.getAdditional(), diff.getNonTranslated(), diff.getMismatched()};
+    }
+
+    private static long[] fingerprints(String[] keys) {
+        long[] fingerprints = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            fingerprints[i] = Fingerprint.of(keys[i]);
+        }
+        Arrays.sort(fingerprints);
+        return fingerprints;
+    }
+
+    /**
+     * The keys of one bundle and locale that became missing, extra, non-changed or mismatched since the
+     * snapshot.
+     */
+    static class Delta {
+
+        private final String[][] kinds;
+
+        Delta(String[][] kinds) {
+            this.kinds = kinds;
+        }
+
+        String[] getMissing() {
+            return kinds[0];
+        }
+
+        String[] getAdditional() {
+            return kinds[1];
+        }
+
+        String[] getNonTranslated() {
+            return kinds[2];
+        }
+
+        String[] getMismatched() {
+            return kinds[3];
+        }
+
+        boolean isEmpty() {
+            for (String[] keys : kinds) {
+                if (keys.length > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
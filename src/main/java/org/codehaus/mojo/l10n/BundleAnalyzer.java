@@ -0,0 +1,761 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Finds the bundle files in a set of resource directories and computes the {@link BundleStatus} of every
+ * default bundle. This is independent of any output format, so it can be shared between goals.
+ *
+ * @since 1.2.1
+ */
+class BundleAnalyzer {
+
+    static final Pattern LOCALE_CODE_PATTERN = Pattern.compile("[a-zA-Z]{2,3}(_[a-zA-Z0-9]+){0,2}");
+
+    private final List<String> locales;
+
+    private final boolean discoverLocales;
+
+    private final List<String> includes;
+
+    private final List<String> excludes;
+
+    private final BundleFormats formats;
+
+    private final StatusCache cache;
+
+    private final boolean useModuleStatus;
+
+    private final Log log;
+
+    private final ReportMetrics metrics = new ReportMetrics();
+
+    private ResourceScanner scanner;
+
+    /**
+     * The localized siblings of every default bundle of the last analysis by locale, including those of the
+     * stored module statuses.
+     */
+    private Map<File, Map<String, File>> localizedFiles = Collections.emptyMap();
+
+    /**
+     * @param locales the locales to compare with the default bundles, may be <code>null</code>
+     * @param discoverLocales whether to also compare with every other locale a localized file is found for
+     * @param includes additional include patterns, may be <code>null</code>
+     * @param excludes exclude patterns used for resources without their own, may be <code>null</code>
+     * @param formats the formats of the bundle files
+     * @param cache the cache of previously analysed files
+     * @param useModuleStatus whether to reuse and store the status of each module in its build directory
+     * @param log the log
+     */
+    BundleAnalyzer(
+            List<String> locales,
+            boolean discoverLocales,
+            List<String> includes,
+            List<String> excludes,
+            BundleFormats formats,
+            StatusCache cache,
+            boolean useModuleStatus,
+            Log log) {
+        this.locales = locales != null ? new ArrayList<>(locales) : new ArrayList<>();
+        this.discoverLocales = discoverLocales;
+        this.includes = includes;
+        this.excludes = excludes;
+        this.formats = formats;
+        this.cache = cache;
+        this.useModuleStatus = useModuleStatus;
+        this.log = log;
+    }
+
+    /**
+     * Scans and analyses all the given resource directories.
+     *
+     * @param resources the resources to scan, per project
+     * @param threads the number of threads to use
+     * @return the status of every default bundle, ordered by project base directory and file
+     * @throws IOException if the analysis was interrupted or failed unexpectedly
+     */
+    List<BundleStatus> analyse(Map<MavenProject, List<Resource>> resources, int threads) throws IOException {
+        String moduleSignature = cache.getSignature() + '|' + locales + '|' + discoverLocales;
+        List<String> configuredLocales = new ArrayList<>(locales);
+        Map<MavenProject, ModuleStatus> stored = new HashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            Map<MavenProject, List<Resource>> scanned = new HashMap<>();
+            for (Map.Entry<MavenProject, List<Resource>> entry : resources.entrySet()) {
+                if (useModuleStatus) {
+                    ModuleStatus moduleStatus = ModuleStatus.read(entry.getKey(), entry.getValue(), moduleSignature);
+                    if (moduleStatus != null) {
+                        log.debug("Using the stored l10n status of "
+                                + entry.getKey().getId());
+                        stored.put(entry.getKey(), moduleStatus);
+                        metrics.addStoredProject(entry.getKey().getId());
+                        continue;
+                    }
+                }
+                scanned.put(entry.getKey(), entry.getValue());
+            }
+            Set<Wrapper> included = scanAll(pool, scanned);
+            metrics.addElapsed("scan", System.nanoTime() - start);
+            start = System.nanoTime();
+
+            Map<File, Map<String, File>> localizedFiles = indexLocalizedFiles(included, formats);
+            Set<String> storedLocales = new TreeSet<>();
+            for (ModuleStatus moduleStatus : stored.values()) {
+                storedLocales.addAll(moduleStatus.getLocales());
+            }
+            addLocales(localizedFiles, storedLocales);
+
+            List<Callable<BundleStatus>> analyses = new ArrayList<>();
+            for (Wrapper wr : included) {
+                Map<String, File> files = localizedFiles.get(wr.getFile());
+                if (files != null) {
+                    analyses.add(() -> analyse(wr, files));
+                }
+            }
+            List<BundleStatus> statuses = new ArrayList<>(analyses.size());
+            for (BundleStatus status : invokeAll(pool, analyses)) {
+                if (status != null) {
+                    statuses.add(status);
+                }
+            }
+
+            if (useModuleStatus) {
+                storeModuleStatus(
+                        resources, stored.keySet(), statuses, configuredLocales, localizedFiles, moduleSignature);
+            }
+            if (!stored.isEmpty()) {
+                for (ModuleStatus moduleStatus : stored.values()) {
+                    for (BundleStatus status : moduleStatus.getStatuses()) {
+                        statuses.add(withLocales(status));
+                    }
+                    localizedFiles.putAll(moduleStatus.getLocalizedFiles());
+                }
+                statuses.sort(new BundleStatusComparator());
+            }
+            this.localizedFiles = localizedFiles;
+            metrics.addElapsed("analyse", System.nanoTime() - start);
+            metrics.updateBundlesInMemory(statuses.size());
+            return statuses;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Scans and analyses all the given resource directories, passing the status of each default bundle to the
+     * consumer as soon as it and all bundles before it are analysed. Only a few bundles are held at a time,
+     * and neither the cache nor the stored module statuses are used.
+     *
+     * @param resources the resources to scan, per project
+     * @param threads the number of threads to use
+     * @param consumer receives the status of every default bundle, ordered by project base directory and file
+     * @throws IOException if the analysis was interrupted or failed unexpectedly, or the consumer failed
+     */
+    void analyse(Map<MavenProject, List<Resource>> resources, int threads, StatusConsumer consumer) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            Set<Wrapper> included = scanAll(pool, resources);
+            metrics.addElapsed("scan", System.nanoTime() - start);
+            start = System.nanoTime();
+
+            Map<File, Map<String, File>> localizedFiles = indexLocalizedFiles(included, formats);
+            addLocales(localizedFiles, Collections.emptySet());
+            this.localizedFiles = localizedFiles;
+
+            Deque<Future<BundleStatus>> pending = new ArrayDeque<>();
+            for (Wrapper wr : included) {
+                Map<String, File> files = localizedFiles.get(wr.getFile());
+                if (files != null) {
+                    pending.add(pool.submit(() -> analyse(wr, files)));
+                    metrics.updateBundlesInMemory(pending.size());
+                    if (pending.size() >= 2 * threads) {
+                        accept(pending.poll(), consumer);
+                    }
+                }
+            }
+            while (!pending.isEmpty()) {
+                accept(pending.poll(), consumer);
+            }
+            metrics.addElapsed("analyse", System.nanoTime() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void accept(Future<BundleStatus> future, StatusConsumer consumer) throws IOException {
+        BundleStatus status = get(future);
+        if (status != null) {
+            consumer.accept(status);
+        }
+    }
+
+    /**
+     * Scans the resource directories and maps every default bundle to its localized siblings by locale. Only
+     * siblings named after a locale are included.
+     *
+     * @param resources the resources to scan, per project
+     * @param threads the number of threads to use
+     * @return the siblings of every default bundle, ordered by project base directory and file
+     * @throws IOException if the scan was interrupted or failed unexpectedly
+     */
+    Map<Wrapper, Map<String, File>> discover(Map<MavenProject, List<Resource>> resources, int threads)
+            throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Set<Wrapper> included = scanAll(pool, resources);
+            Map<File, Map<String, File>> localizedFiles = indexLocalizedFiles(included, formats);
+            Map<Wrapper, Map<String, File>> bundles = new LinkedHashMap<>();
+            for (Wrapper wr : included) {
+                Map<String, File> files = localizedFiles.get(wr.getFile());
+                if (files != null) {
+                    files.keySet()
+                            .removeIf(loc -> !LOCALE_CODE_PATTERN.matcher(loc).matches());
+                    bundles.put(wr, files);
+                }
+            }
+            return bundles;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Scans the resource directories on the pool and collects the found files, ordered by project base
+     * directory and file.
+     */
+    private Set<Wrapper> scanAll(ForkJoinPool pool, Map<MavenProject, List<Resource>> resources) throws IOException {
+        Set<Wrapper> included = new TreeSet<>(new WrapperComparator());
+        scanner = new ResourceScanner(includes, excludes, formats, log, metrics);
+        for (List<Wrapper> scanned : invokeAll(pool, scanner.tasks(resources))) {
+            included.addAll(scanned);
+        }
+        return included;
+    }
+
+    /**
+     * Adds the discovered locales to the analysed ones, if locales are to be discovered.
+     *
+     * @param storedLocales the locales of stored module statuses
+     */
+    private void addLocales(Map<File, Map<String, File>> localizedFiles, Set<String> storedLocales) {
+        if (discoverLocales) {
+            Set<String> found = new TreeSet<>(storedLocales);
+            for (Map<String, File> files : localizedFiles.values()) {
+                for (String loc : files.keySet()) {
+                    if (LOCALE_CODE_PATTERN.matcher(loc).matches()) {
+                        found.add(loc);
+                    }
+                }
+            }
+            found.removeAll(locales);
+            locales.addAll(found);
+        }
+        for (String loc : locales) {
+            metrics.addLocale(loc);
+        }
+    }
+
+    /**
+     * Stores the status of every analysed module, with the locales that are configured or found in the module.
+     */
+    private void storeModuleStatus(
+            Map<MavenProject, List<Resource>> resources,
+            Set<MavenProject> stored,
+            List<BundleStatus> statuses,
+            List<String> configuredLocales,
+            Map<File, Map<String, File>> localizedFiles,
+            String moduleSignature) {
+        Map<MavenProject, List<BundleStatus>> byProject = new HashMap<>();
+        for (BundleStatus status : statuses) {
+            byProject
+                    .computeIfAbsent(status.getProject(), p -> new ArrayList<>())
+                    .add(status);
+        }
+        for (Map.Entry<MavenProject, List<Resource>> entry : resources.entrySet()) {
+            if (stored.contains(entry.getKey())) {
+                continue;
+            }
+            List<BundleStatus> projectStatuses = byProject.getOrDefault(entry.getKey(), Collections.emptyList());
+            List<String> projectLocales = new ArrayList<>();
+            for (String loc : locales) {
+                boolean found = configuredLocales.contains(loc);
+                for (int i = 0; !found && i < projectStatuses.size(); i++) {
+                    LocaleDiff diff = projectStatuses.get(i).getDiff(loc);
+                    found = diff != null && diff.isPresent();
+                }
+                if (found) {
+                    projectLocales.add(loc);
+                }
+            }
+            try {
+                ModuleStatus.write(
+                        entry.getKey(),
+                        entry.getValue(),
+                        moduleSignature,
+                        projectLocales,
+                        projectStatuses,
+                        localizedFiles,
+                        getDirectories());
+            } catch (IOException ex) {
+                log.warn("Unable to store the l10n status of " + entry.getKey().getId() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the stored status with a diff for every analysed locale, in the order of the locales. Locales
+     *         the module was not analysed for have no file in the module.
+     */
+    private BundleStatus withLocales(BundleStatus stored) {
+        BundleStatus status = new BundleStatus(
+                stored.getProject(), stored.getPath(), stored.getFile(), stored.getKeys(), stored.getValueHashes());
+        for (String loc : locales) {
+            status.addDiff(storedDiff(stored, loc));
+        }
+        return status;
+    }
+
+    /**
+     * @return the stored diff of the locale, or one without a file that inherits from its stored parents
+     */
+    private static LocaleDiff storedDiff(BundleStatus stored, String loc) {
+        LocaleDiff diff = stored.getDiff(loc);
+        if (diff != null) {
+            return diff;
+        }
+        diff = LocaleDiff.missingFile(loc, stored.getKeys());
+        int parentEnd = loc.lastIndexOf('_');
+        return parentEnd > 0 ? diff.inherit(storedDiff(stored, loc.substring(0, parentEnd))) : diff;
+    }
+
+    /**
+     * @return the analysed locales, including the discovered ones once {@link #analyse(Map, int)} has run
+     */
+    List<String> getLocales() {
+        return locales;
+    }
+
+    /**
+     * Analyses again the bundles of one directory that are affected by changes of the given files, and
+     * replaces their statuses. The cache makes sure that only changed files are parsed again. This requires
+     * a previous call of {@link #analyse(Map, int)}.
+     *
+     * @param statuses the statuses of the previous analysis, updated in place
+     * @param dir the real path of the directory
+     * @param names the names of the changed files in the directory
+     * @return the new statuses of the affected bundles, or <code>null</code> if a new locale was found and
+     *         everything needs to be analysed again
+     */
+    List<BundleStatus> update(List<BundleStatus> statuses, Path dir, Set<String> names) throws IOException {
+        Set<String> stems = new HashSet<>();
+        boolean templates = false;
+        for (String name : names) {
+            BundleFormat format = formats.forFile(name);
+            if (format != null) {
+                String stem = formats.stem(name);
+                stems.add(stem);
+                for (int i = 1; i < stem.length() - 1; i++) {
+                    if (format.getSeparators().indexOf(stem.charAt(i)) >= 0) {
+                        stems.add(stem.substring(0, i));
+                    }
+                }
+                templates |= format.getTemplateSuffix() != null;
+            }
+        }
+        boolean anyTemplate = templates;
+
+        Set<Wrapper> files = new TreeSet<>(new WrapperComparator());
+        files.addAll(scanner.list(dir));
+        Map<File, Map<String, File>> localizedFiles = indexLocalizedFiles(files, formats);
+        List<BundleStatus> updated = new ArrayList<>();
+        for (Wrapper wr : files) {
+            Map<String, File> siblings = localizedFiles.get(wr.getFile());
+            if (siblings == null || !isAffected(wr.getFile().getName(), stems, anyTemplate)) {
+                continue;
+            }
+            if (discoverLocales) {
+                for (String loc : siblings.keySet()) {
+                    if (!locales.contains(loc)
+                            && LOCALE_CODE_PATTERN.matcher(loc).matches()) {
+                        return null;
+                    }
+                }
+            }
+            BundleStatus status = analyse(wr, siblings);
+            if (status != null) {
+                updated.add(status);
+            }
+        }
+
+        statuses.removeIf(status -> isIn(status.getFile(), dir)
+                && (isAffected(status.getFile().getName(), stems, anyTemplate)
+                        || !localizedFiles.containsKey(status.getFile())));
+        statuses.addAll(updated);
+        statuses.sort(new BundleStatusComparator());
+        return updated;
+    }
+
+    /**
+     * @param stems the names of the changed files without suffix, and their prefixes up to each separator
+     * @param templates whether a localized file of a format with templates changed
+     * @return whether the bundle with the given file name needs to be analysed again
+     */
+    private boolean isAffected(String name, Set<String> stems, boolean templates) {
+        if (templates && formats.isTemplate(name)) {
+            return true;
+        }
+        String stem = formats.stem(name);
+        if (stem == null) {
+            return false;
+        }
+        String separators = formats.forFile(name).getSeparators();
+        for (int i = 1; i < stem.length() - 1; i++) {
+            if (separators.indexOf(stem.charAt(i)) >= 0 && stems.contains(stem.substring(0, i))) {
+                return true;
+            }
+        }
+        return stems.contains(stem);
+    }
+
+    /**
+     * @return whether the file is directly within the directory with the given real path
+     */
+    private static boolean isIn(File file, Path dir) {
+        try {
+            return dir.equals(file.getParentFile().toPath().toRealPath());
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the real paths of the directories that were scanned, which are to be watched for changes
+     */
+    Set<Path> getDirectories() {
+        return scanner != null ? scanner.getDirectories() : Collections.emptySet();
+    }
+
+    /**
+     * @return the localized siblings of every default bundle of the last analysis by locale, found by the scan
+     *         or stored with the status of a module
+     */
+    Map<File, Map<String, File>> getLocalizedFiles() {
+        return localizedFiles;
+    }
+
+    /**
+     * @return the timings and counters of the analysis
+     */
+    ReportMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Maps every default bundle to its localized siblings by locale, using only the scanned file names.
+     * A file <code>name_loc.ext</code> is a sibling of each default bundle <code>name.ext</code> in the same
+     * directory, where the separators and suffixes depend on the format. In formats with templates, a file
+     * named after a locale only is also a sibling of every template in its directory.
+     */
+    static Map<File, Map<String, File>> indexLocalizedFiles(Collection<Wrapper> scanned, BundleFormats formats) {
+        Set<File> files = new HashSet<>();
+        for (Wrapper wr : scanned) {
+            files.add(wr.getFile());
+        }
+        Map<File, Map<String, Map<String, File>>> directories = new HashMap<>();
+        Map<File, Map<String, File>> index = new HashMap<>();
+        for (Wrapper wr : scanned) {
+            String name = wr.getFile().getName();
+            BundleFormat format = formats.forFile(name);
+            if (format != null && isDefaultBundle(wr.getFile(), format, formats, files)) {
+                Map<String, File> siblings = new HashMap<>();
+                index.put(wr.getFile(), siblings);
+                directories
+                        .computeIfAbsent(wr.getFile().getParentFile(), d -> new HashMap<>())
+                        .put(formats.stem(name) + format.getSuffix(), siblings);
+            }
+        }
+        for (Wrapper wr : scanned) {
+            String name = wr.getFile().getName();
+            BundleFormat format = formats.forFile(name);
+            Map<String, Map<String, File>> bases = directories.get(wr.getFile().getParentFile());
+            if (bases == null || format == null || formats.isTemplate(name)) {
+                continue;
+            }
+            String stem = formats.stem(name);
+            for (int i = 1; i < stem.length() - 1; i++) {
+                if (format.getSeparators().indexOf(stem.charAt(i)) >= 0) {
+                    Map<String, File> siblings = bases.get(stem.substring(0, i) + format.getSuffix());
+                    if (siblings != null) {
+                        siblings.put(BundleFormats.toLocale(stem.substring(i + 1), format), wr.getFile());
+                    }
+                }
+            }
+            String loc = BundleFormats.toLocale(stem, format);
+            if (format.getTemplateSuffix() != null
+                    && LOCALE_CODE_PATTERN.matcher(loc).matches()) {
+                for (Map.Entry<String, Map<String, File>> base : bases.entrySet()) {
+                    if (base.getKey().endsWith(format.getSuffix())) {
+                        base.getValue().putIfAbsent(loc, wr.getFile());
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * A file is a default bundle if it is a template, or if its name is not localized and it is not named
+     * after another file of its directory and a locale.
+     *
+     * @param files all scanned files
+     */
+    private static boolean isDefaultBundle(File file, BundleFormat format, BundleFormats formats, Set<File> files) {
+        String name = file.getName();
+        if (format.getTemplateSuffix() != null) {
+            return formats.isTemplate(name);
+        }
+        String stem = formats.stem(name);
+        if (format.isLocalized(stem)) {
+            return false;
+        }
+        for (int i = 1; i < stem.length() - 1; i++) {
+            if (format.getSeparators().indexOf(stem.charAt(i)) >= 0
+                    && LOCALE_CODE_PATTERN
+                            .matcher(BundleFormats.toLocale(stem.substring(i + 1), format))
+                            .matches()
+                    && files.contains(new File(file.getParentFile(), stem.substring(0, i) + format.getSuffix()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the given tasks on the pool and returns their results in the order of the tasks.
+     */
+    static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) throws IOException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(pool.submit(task));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> future : futures) {
+            results.add(get(future));
+        }
+        return results;
+    }
+
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while analysing bundles");
+        } catch (ExecutionException ex) {
+            throw new IOException("Unable to analyse bundles", ex.getCause());
+        }
+    }
+
+    /**
+     * Loads a default bundle and compares it with each of its localized siblings.
+     *
+     * @param localizedFiles the localized siblings of the bundle by locale
+     * @return the status, or <code>null</code> if the bundle could not be read or is not a bundle
+     */
+    BundleStatus analyse(Wrapper wr, Map<String, File> localizedFiles) {
+        String project = wr.getProject().getId();
+        try {
+            StatusCache.BundleFile defaults = getFile(wr.getFile(), project, null);
+            if (defaults == null) {
+                log.debug("Skipping " + wr.getFile() + ", it is not a resource bundle");
+                return null;
+            }
+            BundleStatus status = new BundleStatus(
+                    wr.getProject(), wr.getPath(), wr.getFile(), defaults.getKeys(), defaults.getNormalizedHashes());
+            Map<String, LocaleDiff> resolved = new HashMap<>();
+            for (String loc : locales) {
+                status.addDiff(resolve(wr, defaults, localizedFiles, loc, resolved));
+            }
+            return status;
+        } catch (IOException ex) {
+            log.error(ex);
+            return null;
+        }
+    }
+
+    /**
+     * Takes a bundle file from the cache, or loads it, and records which of the two it was. Only loading is
+     * timed, and only loaded files count towards the bytes and keys read.
+     *
+     * @param locale the locale, or <code>null</code> for a default bundle
+     * @return the file, or <code>null</code> if it is not a bundle of its format
+     */
+    private StatusCache.BundleFile getFile(File file, String project, String locale) throws IOException {
+        StatusCache.BundleFile bundleFile = cache.getCached(file);
+        if (bundleFile != null) {
+            metrics.addCachedFile(project, locale);
+            return bundleFile;
+        }
+        long start = System.nanoTime();
+        bundleFile = cache.load(file);
+        metrics.addTime(project, locale, ReportMetrics.Phase.LOAD, System.nanoTime() - start);
+        if (bundleFile != null) {
+            metrics.addLoadedFile(project, locale, bundleFile.getLength(), bundleFile.size());
+        }
+        return bundleFile;
+    }
+
+    /**
+     * Compares the localized bundle of a locale with the default bundle and resolves the keys it does not
+     * define along its parent chain, e.g. <code>de_CH</code>, <code>de</code>. Every level of the chain is
+     * resolved once per default bundle and reused by all its child locales.
+     *
+     * @param resolved the already resolved diffs of this default bundle by locale
+     */
+    private LocaleDiff resolve(
+            Wrapper wr,
+            StatusCache.BundleFile defaults,
+            Map<String, File> localizedFiles,
+            String loc,
+            Map<String, LocaleDiff> resolved)
+            throws IOException {
+        LocaleDiff diff = resolved.get(loc);
+        if (diff != null) {
+            return diff;
+        }
+        File locFile = localizedFiles.get(loc);
+        String project = wr.getProject().getId();
+        StatusCache.BundleFile localized = locFile != null ? getFile(locFile, project, loc) : null;
+        if (localized != null) {
+            long start = System.nanoTime();
+            diff = cache.getDiff(defaults, localized, loc);
+            metrics.addTime(project, loc, ReportMetrics.Phase.DIFF, System.nanoTime() - start);
+        } else {
+            diff = LocaleDiff.missingFile(loc, defaults.getKeys());
+        }
+        int parentEnd = loc.lastIndexOf('_');
+        if (parentEnd > 0) {
+            diff = diff.inherit(resolve(wr, defaults, localizedFiles, loc.substring(0, parentEnd), resolved));
+        }
+        resolved.put(loc, diff);
+        return diff;
+    }
+
+    /**
+     * Receives the analysed bundles one at a time.
+     */
+    interface StatusConsumer {
+
+        void accept(BundleStatus status) throws IOException;
+    }
+
+    /**
+     * A bundle file found in a resource directory.
+     */
+    static class Wrapper {
+
+        private final String path;
+
+        private final File file;
+
+        private final MavenProject proj;
+
+        private final String targetPath;
+
+        Wrapper(String p, File f, MavenProject prj, String target) {
+            path = p;
+            file = f;
+            proj = prj;
+            targetPath = target;
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        MavenProject getProject() {
+            return proj;
+        }
+
+        /**
+         * @return the target path of the resource the file was found in, or <code>null</code> if it is copied
+         *         to the root of the output directory
+         */
+        String getTargetPath() {
+            return targetPath;
+        }
+    }
+
+    private static class BundleStatusComparator implements Comparator<BundleStatus> {
+
+        public int compare(BundleStatus st1, BundleStatus st2) {
+            int comp1 = st1.getProject().getBasedir().compareTo(st2.getProject().getBasedir());
+            if (comp1 != 0) {
+                return comp1;
+            }
+            return st1.getFile().compareTo(st2.getFile());
+        }
+    }
+
+    private static class WrapperComparator implements Comparator<Wrapper> {
+
+        public int compare(Wrapper wr1, Wrapper wr2) {
+            int comp1 = wr1.getProject().getBasedir().compareTo(wr2.getProject().getBasedir());
+            if (comp1 != 0) {
+                return comp1;
+            }
+            return wr1.getFile().compareTo(wr2.getFile());
+        }
+    }
+}
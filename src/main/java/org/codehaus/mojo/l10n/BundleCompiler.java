@@ -0,0 +1,193 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.mojo.l10n.runtime.CompiledResourceBundle;
+
+/**
+ * Writes the properties of one flattened bundle in the format of {@link CompiledResourceBundle}. The key index
+ * is a minimal perfect hash built by hash and displace: keys are hashed into buckets of about four keys, and
+ * every bucket, largest first, gets the smallest displacement that moves all its keys into free slots. Buckets
+ * of a single key are put directly into the remaining slots.
+ *
+ * @since 1.2.1
+ */
+final class BundleCompiler {
+
+    private static final int KEYS_PER_BUCKET = 4;
+
+    private static final int MAX_DISPLACEMENT = 1 << 20;
+
+    private BundleCompiler() {}
+
+    /**
+     * @param properties the keys and values of the bundle
+     * @param sources the fingerprint of the source files, which is appended to the compiled bundle
+     * @return the contents of the compiled bundle
+     */
+    static byte[] compile(Map<String, String> properties, long sources) throws IOException {
+        String[] keys = properties.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        int n = keys.length;
+        int bucketCount = Math.max(1, n / KEYS_PER_BUCKET);
+        int[] displacements = new int[bucketCount];
+        int[] slots = new int[n];
+        int seed = 0;
+        while (!place(keys, seed, displacements, slots)) {
+            seed++;
+        }
+
+        // One pool of strings, in which equal values are stored once
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        DataOutputStream poolOut = new DataOutputStream(pool);
+        Map<String, Integer> offsets = new HashMap<>();
+        int[] keyRefs = new int[n];
+        int[] valueRefs = new int[n];
+        for (int k = 0; k < n; k++) {
+            keyRefs[slots[k]] = write(poolOut, keys[k], null);
+            valueRefs[slots[k]] = write(poolOut, properties.get(keys[k]), offsets);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(28 + 4 * bucketCount + 8 * n + pool.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(CompiledResourceBundle.MAGIC);
+        out.writeInt(CompiledResourceBundle.FORMAT_VERSION);
+        out.writeInt(seed);
+        out.writeInt(n);
+        out.writeInt(bucketCount);
+        for (int displacement : displacements) {
+            out.writeInt(displacement);
+        }
+        for (int slot = 0; slot < n; slot++) {
+            out.writeInt(keyRefs[slot]);
+            out.writeInt(valueRefs[slot]);
+        }
+        pool.writeTo(out);
+        out.writeLong(sources);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Computes the displacement of every bucket and the slot of every key.
+     *
+     * @return whether all buckets could be placed with this seed
+     */
+    private static boolean place(String[] keys, int seed, int[] displacements, int[] slots) {
+        int n = keys.length;
+        int bucketCount = displacements.length;
+        long[] hashes = new long[n];
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int k = 0; k < n; k++) {
+            hashes[k] = CompiledResourceBundle.hash(keys[k], seed);
+            buckets.get(CompiledResourceBundle.bucket(hashes[k], bucketCount)).add(k);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, (b1, b2) -> buckets.get(b2).size() - buckets.get(b1).size());
+
+        Arrays.fill(displacements, 0);
+        BitSet taken = new BitSet(n);
+        int[] candidate = new int[KEYS_PER_BUCKET * 4];
+        int next = 0;
+        for (; next < bucketCount && buckets.get(order[next]).size() > 1; next++) {
+            List<Integer> bucket = buckets.get(order[next]);
+            if (bucket.size() > candidate.length) {
+                candidate = new int[bucket.size()];
+            }
+            int d = 0;
+            while (!fits(bucket, hashes, d, n, taken, candidate)) {
+                if (++d == MAX_DISPLACEMENT) {
+                    return false;
+                }
+            }
+            displacements[order[next]] = d;
+            for (int i = 0; i < bucket.size(); i++) {
+                taken.set(candidate[i]);
+                slots[bucket.get(i)] = candidate[i];
+            }
+        }
+        for (int free = taken.nextClearBit(0); next < bucketCount; next++) {
+            List<Integer> bucket = buckets.get(order[next]);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            displacements[order[next]] = -free - 1;
+            slots[bucket.get(0)] = free;
+            free = taken.nextClearBit(free + 1);
+        }
+        return true;
+    }
+
+    private static boolean fits(List<Integer> bucket, long[] hashes, int d, int n, BitSet taken, int[] candidate) {
+        for (int i = 0; i < bucket.size(); i++) {
+            int slot = CompiledResourceBundle.slot(hashes[bucket.get(i)], d, n);
+            if (taken.get(slot)) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (candidate[j] == slot) {
+                    return false;
+                }
+            }
+            candidate[i] = slot;
+        }
+        return true;
+    }
+
+    /**
+     * Appends a length-prefixed UTF-8 string to the pool, unless an equal one is known.
+     *
+     * @param offsets the offsets of the strings written so far, or <code>null</code> for a string to not share
+     * @return the offset of the string in the pool
+     */
+    private static int write(DataOutputStream pool, String value, Map<String, Integer> offsets) throws IOException {
+        if (offsets != null) {
+            Integer known = offsets.get(value);
+            if (known != null) {
+                return known;
+            }
+        }
+        int offset = pool.size();
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        pool.writeInt(utf8.length);
+        pool.write(utf8);
+        if (offsets != null) {
+            offsets.put(value, offset);
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,112 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A file format of resource bundles. A format defines how its files are named, which files of a directory are
+ * localized siblings of a default bundle, and how their entries are read. A localized sibling of a default
+ * bundle <code>name.ext</code> is named <code>name</code>, a separator, the locale and <code>.ext</code>. In a
+ * format with templates, the default bundle is a template and each localized file may also be named after its
+ * locale only, e.g. <code>de.po</code> next to <code>messages.pot</code>.
+ * <p>
+ * Implementations read a file in a single pass and pass each entry to the handler as it is found, without
+ * building a tree of the whole file. They must be safe for use by several threads at once. The formats are
+ * those of {@link StandardBundleFormat}; this interface is not loaded from the classpath of the build.
+ * <p>
+ * The input is not streamed: a format gets the whole file as bytes, and the text formats decode it into one
+ * array of characters, so that a file briefly takes about three times its size per analysing thread. The
+ * bytes are read anyway for the content fingerprint of {@link StatusCache}, and the encoding of a
+ * <code>.properties</code> file, UTF-8 or ISO-8859-1, is only known once all of it was checked. What is
+ * kept after parsing is independent of the file size apart from the keys.
+ *
+ * @since 1.2.1
+ */
+interface BundleFormat {
+
+    /**
+     * Receives the entries of a file, in the order they appear.
+     */
+    interface Handler {
+
+        /**
+         * @param key the key
+         * @param value the value, only valid until this method returns
+         */
+        void property(String key, CharSequence value);
+    }
+
+    /**
+     * @return the name the format is configured with
+     */
+    String getName();
+
+    /**
+     * @return the file name suffix of localized files, including the dot
+     */
+    String getSuffix();
+
+    /**
+     * @return the file name suffix of templates, or <code>null</code> if default bundles use the suffix of
+     *         localized files
+     */
+    default String getTemplateSuffix() {
+        return null;
+    }
+
+    /**
+     * @return the characters that may separate the bundle name from the locale and the parts of the locale
+     */
+    default String getSeparators() {
+        return "_";
+    }
+
+    /**
+     * Tells whether a file is a localized file by its name alone, even if no default bundle for it exists.
+     *
+     * @param stem the file name without the suffix
+     */
+    default boolean isLocalized(String stem) {
+        return false;
+    }
+
+    /**
+     * @return the names of files with the suffix of this format that are known not to be bundles, e.g. the
+     *         configuration files of build tools, which are excluded unless includes are configured
+     */
+    default List<String> getNonBundleNames() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Reads the entries of a file. A file with the suffix of this format may turn out to be another kind of
+     * file, e.g. a configuration file, in which case the entries passed to the handler so far are to be
+     * ignored.
+     *
+     * @param content the contents of the file
+     * @param handler receives the entries
+     * @return <code>false</code> if the file is not a bundle of this format
+     * @throws IOException if the file is malformed
+     */
+    boolean parse(byte[] content, Handler handler) throws IOException;
+}
@@ -0,0 +1,184 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The bundle formats a goal is configured with. It finds the format of a file by the file name.
+ *
+ * @since 1.2.1
+ */
+final class BundleFormats {
+
+    /**
+     * All standard formats, for reading files that are known to be bundles.
+     */
+    static final BundleFormats ALL = new BundleFormats(Arrays.asList(StandardBundleFormat.values()));
+
+    private final List<BundleFormat> formats;
+
+    private BundleFormats(List<BundleFormat> formats) {
+        this.formats = formats;
+    }
+
+    /**
+     * @param names the names of the formats, or <code>null</code> or empty for <code>.properties</code> files
+     *            only
+     * @throws IllegalArgumentException if a name does not denote a format
+     */
+    static BundleFormats of(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return new BundleFormats(Collections.singletonList(StandardBundleFormat.PROPERTIES));
+        }
+        List<BundleFormat> formats = new ArrayList<>();
+        for (String name : names) {
+            BundleFormat found = null;
+            for (StandardBundleFormat format : StandardBundleFormat.values()) {
+                if (format.getName().equalsIgnoreCase(name.trim())) {
+                    found = format;
+                }
+            }
+            if (found == null) {
+                throw new IllegalArgumentException("Unknown bundle format: " + name + ", expected one of " + ALL);
+            }
+            if (!formats.contains(found)) {
+                formats.add(found);
+            }
+        }
+        return new BundleFormats(formats);
+    }
+
+    /**
+     * Reads a file in the standard format its name denotes. Files of unknown formats are read as
+     * <code>.properties</code> files.
+     *
+     * @param name the name or path of the file
+     * @return <code>false</code> if the file is not a bundle of its format
+     * @see BundleFormat#parse(byte[], BundleFormat.Handler)
+     */
+    static boolean parse(String name, byte[] content, BundleFormat.Handler handler) throws IOException {
+        BundleFormat format = ALL.forFile(name);
+        return (format != null ? format : StandardBundleFormat.PROPERTIES).parse(content, handler);
+    }
+
+    /**
+     * @return the include patterns of all files of these formats
+     */
+    List<String> getIncludes() {
+        List<String> includes = new ArrayList<>();
+        for (BundleFormat format : formats) {
+            includes.add("**/*" + format.getSuffix());
+            if (format.getTemplateSuffix() != null) {
+                includes.add("**/*" + format.getTemplateSuffix());
+            }
+        }
+        return includes;
+    }
+
+    /**
+     * @return the exclude patterns of the files of these formats that are known not to be bundles
+     */
+    List<String> getExcludes() {
+        List<String> excludes = new ArrayList<>();
+        for (BundleFormat format : formats) {
+            for (String name : format.getNonBundleNames()) {
+                excludes.add("**/" + name);
+            }
+        }
+        return excludes;
+    }
+
+    /**
+     * @param name the name or path of a file
+     * @return the format of the file, or <code>null</code> if it is not a file of these formats
+     */
+    BundleFormat forFile(String name) {
+        for (BundleFormat format : formats) {
+            if (name.endsWith(format.getSuffix())
+                    || format.getTemplateSuffix() != null && name.endsWith(format.getTemplateSuffix())) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return whether the file is a template of a format with templates
+     */
+    boolean isTemplate(String name) {
+        BundleFormat format = forFile(name);
+        return format != null && format.getTemplateSuffix() != null && name.endsWith(format.getTemplateSuffix());
+    }
+
+    /**
+     * @return the name without the suffix of its format, or <code>null</code> if it is not a file of these
+     *         formats
+     */
+    String stem(String name) {
+        BundleFormat format = forFile(name);
+        if (format == null) {
+            return null;
+        }
+        int suffixLength = name.endsWith(format.getSuffix())
+                ? format.getSuffix().length()
+                : format.getTemplateSuffix().length();
+        return name.substring(0, name.length() - suffixLength);
+    }
+
+    /**
+     * @return the locale a part of a file name denotes, with its separators replaced by underscores
+     */
+    static String toLocale(String code, BundleFormat format) {
+        String separators = format.getSeparators();
+        char[] chars = code.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (separators.indexOf(chars[i]) >= 0) {
+                chars[i] = '_';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return the names of these formats, sorted so that they do not depend on the order they are configured in
+     */
+    List<String> getSortedNames() {
+        List<String> names = new ArrayList<>();
+        for (BundleFormat format : formats) {
+            names.add(format.getName());
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        List<String> names = new ArrayList<>();
+        for (BundleFormat format : formats) {
+            names.add(format.getName());
+        }
+        return names.toString();
+    }
+}
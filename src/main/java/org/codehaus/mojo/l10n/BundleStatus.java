@@ -0,0 +1,159 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.project.MavenProject;
+
+/**
+ * The analysed l10n status of one default bundle: its keys and a {@link LocaleDiff} for every watched locale.
+ *
+ * @since 1.2.1
+ */
+class BundleStatus {
+
+    private final MavenProject project;
+
+    private final String path;
+
+    private final File file;
+
+    private final String[] keys;
+
+    private final long[] valueHashes;
+
+    private final Map<String, LocaleDiff> diffs = new LinkedHashMap<>();
+
+    /**
+     * @param valueHashes the fingerprints of the default values with normalized whitespace, in key order
+     */
+    BundleStatus(MavenProject project, String path, File file, String[] keys, long[] valueHashes) {
+        this.project = project;
+        this.path = path;
+        this.file = file;
+        this.keys = keys;
+        this.valueHashes = valueHashes;
+    }
+
+    MavenProject getProject() {
+        return project;
+    }
+
+    /**
+     * @return the path of the bundle file, relative to its resource directory
+     */
+    String getPath() {
+        return path;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the sorted keys of the default bundle
+     */
+    String[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * @return the fingerprints of the default values with normalized whitespace, or <code>0</code> for blank
+     *         values, in key order
+     * @see StatusCache.BundleFile#getNormalizedHashes()
+     */
+    long[] getValueHashes() {
+        return valueHashes;
+    }
+
+    int getKeyCount() {
+        return keys.length;
+    }
+
+    void addDiff(LocaleDiff diff) {
+        diffs.put(diff.getLocale(), diff);
+    }
+
+    /**
+     * @return the diff for the given locale, or <code>null</code> if the locale was not analysed
+     */
+    LocaleDiff getDiff(String locale) {
+        return diffs.get(locale);
+    }
+
+    /**
+     * @return the diffs of all analysed locales, in the order the locales were configured
+     */
+    Collection<LocaleDiff> getDiffs() {
+        return diffs.values();
+    }
+
+    /**
+     * Reads a status written by {@link #write(DataOutputStream, Collection)}.
+     */
+    static BundleStatus read(DataInputStream in, MavenProject project) throws IOException {
+        String path = StatusCache.readString(in);
+        File file = new File(StatusCache.readString(in));
+        String[] keys = StatusCache.readStrings(in);
+        long[] valueHashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            valueHashes[i] = in.readLong();
+        }
+        BundleStatus status = new BundleStatus(project, path, file, keys, valueHashes);
+        int diffCount = in.readInt();
+        for (int i = 0; i < diffCount; i++) {
+            status.addDiff(LocaleDiff.read(in, keys));
+        }
+        return status;
+    }
+
+    /**
+     * Writes this status without the project.
+     *
+     * @param locales the locales to write the diffs of
+     */
+    void write(DataOutputStream out, Collection<String> locales) throws IOException {
+        StatusCache.writeString(out, path);
+        StatusCache.writeString(out, file.getAbsolutePath());
+        StatusCache.writeStrings(out, keys);
+        for (long valueHash : valueHashes) {
+            out.writeLong(valueHash);
+        }
+        List<LocaleDiff> written = new ArrayList<>(diffs.size());
+        for (LocaleDiff diff : diffs.values()) {
+            if (locales.contains(diff.getLocale())) {
+                written.add(diff);
+            }
+        }
+        out.writeInt(written.size());
+        for (LocaleDiff diff : written) {
+            diff.write(out);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * 64-bit FNV-1a fingerprints for file contents and property values.
+ *
+ * @since 1.2.1
+ */
+final class Fingerprint {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private Fingerprint() {}
+
+    /**
+     * Fingerprint of a byte range, used to detect changed file contents.
+     */
+    static long of(byte[] data, int offset, int length) {
+        long h = OFFSET_BASIS;
+        for (int i = offset; i < offset + length; i++) {
+            h ^= data[i] & 0xff;
+            h *= PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * Fingerprint of a string, used to compare property values without keeping them.
+     */
+    static long of(CharSequence value) {
+        long h = OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            h = add(h, value.charAt(i));
+        }
+        return h;
+    }
+
+    /**
+     * Fingerprint of a string without its leading and trailing whitespace and with every inner run of
+     * whitespace replaced by one space, the same as that of the normalized string.
+     */
+    static long ofNormalized(CharSequence value) {
+        long h = OFFSET_BASIS;
+        boolean started = false;
+        boolean space = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = started;
+                continue;
+            }
+            if (space) {
+                h = add(h, ' ');
+                space = false;
+            }
+            h = add(h, c);
+            started = true;
+        }
+        return h;
+    }
+
+    private static long add(long h, char c) {
+        h ^= c & 0xff;
+        h *= PRIME;
+        h ^= c >>> 8;
+        h *= PRIME;
+        return h;
+    }
+}
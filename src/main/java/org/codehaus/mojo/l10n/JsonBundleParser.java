@@ -0,0 +1,282 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+
+/**
+ * Reads the string values of a JSON file one at a time, e.g. of the files used by i18next or vue-i18n. The
+ * keys of nested objects are joined with dots, those of array elements with their index, so that
+ * <code>{"menu": {"open": "Open"}}</code> has the key <code>menu.open</code>. Numbers and booleans are read as
+ * their text, <code>null</code> values are left out. The file is read in a single pass, holding only the key
+ * of the current value.
+ *
+ * @since 1.2.1
+ */
+final class JsonBundleParser {
+
+    private final char[] data;
+
+    private int pos;
+
+    /**
+     * The key of the current value.
+     */
+    private final StringBuilder path = new StringBuilder();
+
+    /**
+     * The current string, key or number.
+     */
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * The number of values read, and of string values among them.
+     */
+    private int values;
+
+    private int strings;
+
+    private JsonBundleParser(char[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Parses the contents of a file, which are read as UTF-8 unless they are not valid UTF-8.
+     *
+     * @return <code>false</code> if the file does not hold an object, or has values but not a single string,
+     *         e.g. a configuration file of numbers and booleans
+     * @throws IOException if the file is not well-formed JSON
+     */
+    static boolean parse(byte[] content, BundleFormat.Handler handler) throws IOException {
+        return new JsonBundleParser(PropertiesParser.decode(content)).parse(handler);
+    }
+
+    private boolean parse(BundleFormat.Handler handler) throws IOException {
+        if (pos < data.length && data[pos] == '\uFEFF') {
+            pos++;
+        }
+        skipWhitespace();
+        if (pos == data.length || data[pos] != '{') {
+            return false;
+        }
+        value(handler);
+        skipWhitespace();
+        if (pos < data.length) {
+            throw error("Unexpected content after the object");
+        }
+        return strings > 0 || values == 0;
+    }
+
+    /**
+     * Reads the value at the current position and passes it, or every value within it, to the handler.
+     */
+    private void value(BundleFormat.Handler handler) throws IOException {
+        skipWhitespace();
+        char c = peek();
+        if (c == '{') {
+            object(handler);
+        } else if (c == '[') {
+            array(handler);
+        } else if (c == '"') {
+            pos++;
+            string();
+            values++;
+            strings++;
+            handler.property(path.toString(), text);
+        } else if (c == 't') {
+            literal("true");
+            values++;
+            handler.property(path.toString(), "true");
+        } else if (c == 'f') {
+            literal("false");
+            values++;
+            handler.property(path.toString(), "false");
+        } else if (c == 'n') {
+            literal("null");
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            number();
+            values++;
+            handler.property(path.toString(), text);
+        } else {
+            throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private void object(BundleFormat.Handler handler) throws IOException {
+        pos++;
+        int length = path.length();
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            if (next() != '"') {
+                throw error("Expected a key");
+            }
+            string();
+            path.setLength(length);
+            if (length > 0) {
+                path.append('.');
+            }
+            path.append(text);
+            skipWhitespace();
+            if (next() != ':') {
+                throw error("Expected ':'");
+            }
+            value(handler);
+            skipWhitespace();
+            char c = next();
+            if (c == '}') {
+                break;
+            } else if (c != ',') {
+                throw error("Expected ',' or '}'");
+            }
+        }
+        path.setLength(length);
+    }
+
+    private void array(BundleFormat.Handler handler) throws IOException {
+        pos++;
+        int length = path.length();
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return;
+        }
+        for (int index = 0; ; index++) {
+            path.setLength(length);
+            if (length > 0) {
+                path.append('.');
+            }
+            path.append(index);
+            value(handler);
+            skipWhitespace();
+            char c = next();
+            if (c == ']') {
+                break;
+            } else if (c != ',') {
+                throw error("Expected ',' or ']'");
+            }
+        }
+        path.setLength(length);
+    }
+
+    /**
+     * Reads a string after its opening quote into {@link #text}, with its escapes resolved.
+     */
+    private void string() throws IOException {
+        text.setLength(0);
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return;
+            } else if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            c = next();
+            switch (c) {
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(next(), 16);
+                        if (digit < 0) {
+                            throw error("Malformed \\uxxxx escape");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    text.append((char) code);
+                    break;
+                default:
+                    text.append(c);
+            }
+        }
+    }
+
+    /**
+     * Reads a number into {@link #text}.
+     */
+    private void number() {
+        text.setLength(0);
+        while (pos < data.length) {
+            char c = data[pos];
+            if ((c < '0' || c > '9') && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') {
+                break;
+            }
+            text.append(c);
+            pos++;
+        }
+    }
+
+    private void literal(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) {
+                throw error("Expected " + literal);
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < data.length && (data[pos] == ' ' || data[pos] == '\t' || data[pos] == '\r' || data[pos] == '\n')) {
+            pos++;
+        }
+    }
+
+    /**
+     * @return the character at the current position, or 0 at the end of the file
+     */
+    private char peek() {
+        return pos < data.length ? data[pos] : 0;
+    }
+
+    private char next() throws IOException {
+        if (pos >= data.length) {
+            throw error("Unexpected end of file");
+        }
+        return data[pos++];
+    }
+
+    private IOException error(String message) {
+        int line = 1;
+        for (int i = 0; i < pos && i < data.length; i++) {
+            if (data[i] == '\n') {
+                line++;
+            }
+        }
+        return new IOException(message + " at line " + line);
+    }
+}
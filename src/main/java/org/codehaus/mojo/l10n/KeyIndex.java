@@ -0,0 +1,79 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Maps the sorted keys of a default bundle to dense indexes, so that the key sets of its locales can be
+ * represented as bit sets. Lookups use an open addressing table of <code>int</code>s and allocate nothing.
+ *
+ * @since 1.2.1
+ */
+final class KeyIndex {
+
+    private final String[] keys;
+
+    private final int[] slots;
+
+    private final int mask;
+
+    /**
+     * @param keys the sorted, distinct keys; the position of a key is its index
+     */
+    KeyIndex(String[] keys) {
+        this.keys = keys;
+        int capacity = Integer.highestOneBit(Math.max(4, keys.length * 2 - 1)) << 1;
+        slots = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = spread(keys[i].hashCode()) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    /**
+     * @return the index of the key, or <code>-1</code> if it is not part of this index
+     */
+    int indexOf(String key) {
+        int slot = spread(key.hashCode()) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            if (keys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    String[] getKeys() {
+        return keys;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
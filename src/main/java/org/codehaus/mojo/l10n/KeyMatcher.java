@@ -0,0 +1,216 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * An Aho-Corasick automaton that finds all occurrences of many keys in one pass over a text, independent of
+ * the number of keys. A key only counts as found if it is not part of a longer key-like token, i.e. if it is
+ * neither preceded nor followed by a letter, digit, <code>.</code>, <code>_</code> or <code>-</code>.
+ * <p>
+ * The automaton is immutable once built and may be shared between threads.
+ *
+ * @since 1.2.1
+ */
+final class KeyMatcher {
+
+    /**
+     * The characters used by the keys, mapped to dense codes starting at 1; 0 for other characters.
+     */
+    private final int[] codes = new int[Character.MAX_VALUE + 1];
+
+    /**
+     * The transitions of state <code>s</code> are at <code>[edgeStart[s], edgeStart[s + 1])</code>,
+     * sorted by code.
+     */
+    private final int[] edgeStart;
+
+    private final int[] edgeCode;
+
+    private final int[] edgeTarget;
+
+    private final int[] failure;
+
+    /**
+     * The index of the key ending in each state, or -1.
+     */
+    private final int[] keyAt;
+
+    /**
+     * The nearest state on the failure chain of each state that ends a key, or -1.
+     */
+    private final int[] nextKey;
+
+    private final int[] keyLength;
+
+    /**
+     * @param keys the keys to find; the position of a key is its index in {@link #findAll(CharSequence, BitSet)}
+     */
+    KeyMatcher(String[] keys) {
+        int alphabet = 0;
+        int maxStates = 1;
+        for (String key : keys) {
+            maxStates += key.length();
+            for (int i = 0; i < key.length(); i++) {
+                if (codes[key.charAt(i)] == 0) {
+                    codes[key.charAt(i)] = ++alphabet;
+                }
+            }
+        }
+
+        // Build the trie with the children of each state in a sorted, linked list
+        int[] firstChild = new int[maxStates];
+        int[] sibling = new int[maxStates];
+        int[] stateCode = new int[maxStates];
+        Arrays.fill(firstChild, -1);
+        int[] keyEnd = new int[maxStates];
+        Arrays.fill(keyEnd, -1);
+        keyLength = new int[keys.length];
+        int states = 1;
+        for (int k = 0; k < keys.length; k++) {
+            String key = keys[k];
+            keyLength[k] = key.length();
+            int state = 0;
+            for (int i = 0; i < key.length(); i++) {
+                int code = codes[key.charAt(i)];
+                int prev = -1;
+                int child = firstChild[state];
+                while (child != -1 && stateCode[child] < code) {
+                    prev = child;
+                    child = sibling[child];
+                }
+                if (child == -1 || stateCode[child] != code) {
+                    int added = states++;
+                    stateCode[added] = code;
+                    sibling[added] = child;
+                    if (prev == -1) {
+                        firstChild[state] = added;
+                    } else {
+                        sibling[prev] = added;
+                    }
+                    child = added;
+                }
+                state = child;
+            }
+            if (key.length() > 0 && keyEnd[state] == -1) {
+                keyEnd[state] = k;
+            }
+        }
+
+        // Flatten the transitions
+        edgeStart = new int[states + 1];
+        edgeCode = new int[states - 1];
+        edgeTarget = new int[states - 1];
+        int edges = 0;
+        for (int s = 0; s < states; s++) {
+            edgeStart[s] = edges;
+            for (int child = firstChild[s]; child != -1; child = sibling[child]) {
+                edgeCode[edges] = stateCode[child];
+                edgeTarget[edges] = child;
+                edges++;
+            }
+        }
+        edgeStart[states] = edges;
+        keyAt = Arrays.copyOf(keyEnd, states);
+
+        // Compute the failure links breadth first
+        failure = new int[states];
+        nextKey = new int[states];
+        nextKey[0] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int e = edgeStart[0]; e < edgeStart[1]; e++) {
+            int child = edgeTarget[e];
+            failure[child] = 0;
+            nextKey[child] = -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+                int child = edgeTarget[e];
+                int f = failure[s];
+                int target;
+                while ((target = transition(f, edgeCode[e])) == -1 && f != 0) {
+                    f = failure[f];
+                }
+                failure[child] = target == -1 ? 0 : target;
+                nextKey[child] = keyAt[failure[child]] != -1 ? failure[child] : nextKey[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Marks the indexes of all keys that occur in the text as whole tokens.
+     */
+    void findAll(CharSequence text, BitSet found) {
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            int code = codes[text.charAt(i)];
+            if (code == 0) {
+                state = 0;
+                continue;
+            }
+            int target;
+            while ((target = transition(state, code)) == -1 && state != 0) {
+                state = failure[state];
+            }
+            state = target == -1 ? 0 : target;
+
+            if (i + 1 < length && isKeyPart(text.charAt(i + 1))) {
+                // Any key ending here would be followed by more of a token
+                continue;
+            }
+            for (int s = keyAt[state] != -1 ? state : nextKey[state]; s != -1; s = nextKey[s]) {
+                int key = keyAt[s];
+                int start = i + 1 - keyLength[key];
+                if (start == 0 || !isKeyPart(text.charAt(start - 1))) {
+                    found.set(key);
+                }
+            }
+        }
+    }
+
+    private int transition(int state, int code) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = edgeCode[mid];
+            if (c < code) {
+                low = mid + 1;
+            } else if (c > code) {
+                high = mid - 1;
+            } else {
+                return edgeTarget[mid];
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isKeyPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '.' || c == '_' || c == '-';
+    }
+}
@@ -0,0 +1,210 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Cross-references the keys of the default bundles with the compile sources of a set of projects, to find keys
+ * that are never referenced. All keys are searched for at once with a {@link KeyMatcher}, in a single parallel
+ * pass over the source files. Keys that are only built at runtime, e.g. by concatenation, are not found and
+ * are reported as unused.
+ *
+ * @since 1.2.1
+ */
+final class KeyUsage {
+
+    private static final int FILES_PER_TASK = 32;
+
+    private final KeyIndex index;
+
+    private final BitSet used;
+
+    private final int sourceFileCount;
+
+    private KeyUsage(KeyIndex index, BitSet used, int sourceFileCount) {
+        this.index = index;
+        this.used = used;
+        this.sourceFileCount = sourceFileCount;
+    }
+
+    /**
+     * Searches the compile source roots of the projects for the keys of the given bundles.
+     *
+     * @param statuses the analysed default bundles
+     * @param projects the projects whose sources may reference the keys
+     * @param threads the number of threads to use
+     * @throws IOException if a source file cannot be read, or the scan was interrupted
+     */
+    static KeyUsage scan(Iterable<BundleStatus> statuses, Collection<MavenProject> projects, int threads, Log log)
+            throws IOException {
+        Set<String> distinct = new TreeSet<>();
+        for (BundleStatus status : statuses) {
+            for (String key : status.getKeys()) {
+                distinct.add(key);
+            }
+        }
+        String[] keys = distinct.toArray(new String[0]);
+        KeyMatcher matcher = new KeyMatcher(keys);
+
+        // Each source root is read once, in the encoding of the first project using it
+        TreeMap<Path, Charset> roots = new TreeMap<>();
+        for (MavenProject project : projects) {
+            Charset encoding = getSourceEncoding(project, log);
+            for (String root : project.getCompileSourceRoots()) {
+                Path dir = Paths.get(root);
+                if (Files.isDirectory(dir)) {
+                    roots.putIfAbsent(dir.toRealPath(), encoding);
+                }
+            }
+        }
+        List<Path> files = new ArrayList<>();
+        List<Charset> encodings = new ArrayList<>();
+        // Sorted paths list every root before the roots within it, though not always right before them
+        List<Path> walked = new ArrayList<>();
+        for (Path root : roots.keySet()) {
+            if (isWithin(root, walked)) {
+                continue;
+            }
+            walked.add(root);
+            Charset encoding = roots.get(root);
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    Path name = dir.getFileName();
+                    return !dir.equals(root) && name != null && name.toString().startsWith(".")
+                            ? FileVisitResult.SKIP_SUBTREE
+                            : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        files.add(file);
+                        encodings.add(encoding);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        List<Callable<BitSet>> tasks = new ArrayList<>();
+        for (int from = 0; from < files.size(); from += FILES_PER_TASK) {
+            int start = from;
+            int end = Math.min(files.size(), from + FILES_PER_TASK);
+            tasks.add(() -> {
+                BitSet found = new BitSet(keys.length);
+                for (int i = start; i < end; i++) {
+                    matcher.findAll(new String(Files.readAllBytes(files.get(i)), encodings.get(i)), found);
+                }
+                return found;
+            });
+        }
+        BitSet used = new BitSet(keys.length);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (BitSet found : BundleAnalyzer.invokeAll(pool, tasks)) {
+                used.or(found);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new KeyUsage(new KeyIndex(keys), used, files.size());
+    }
+
+    /**
+     * @return whether the root lies within one of the given roots
+     */
+    private static boolean isWithin(Path root, List<Path> outer) {
+        for (Path dir : outer) {
+            if (root.startsWith(dir)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Charset getSourceEncoding(MavenProject project, Log log) {
+        String encoding = project.getProperties().getProperty("project.build.sourceEncoding");
+        if (encoding != null) {
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalCharsetNameException | UnsupportedCharsetException ex) {
+                log.warn("Unsupported source encoding " + encoding + " of " + project.getId() + ", using UTF-8");
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * @param keys the keys of a default bundle
+     * @return the keys that are not referenced by any source file, in the given order
+     */
+    String[] getUnused(String[] keys) {
+        List<String> unused = new ArrayList<>();
+        for (String key : keys) {
+            int i = index.indexOf(key);
+            if (i == -1 || !used.get(i)) {
+                unused.add(key);
+            }
+        }
+        return unused.toArray(new String[0]);
+    }
+
+    /**
+     * @return the number of distinct keys searched for
+     */
+    int getKeyCount() {
+        return index.size();
+    }
+
+    /**
+     * @return the number of distinct keys not referenced by any source file
+     */
+    int getUnusedCount() {
+        return index.size() - used.cardinality();
+    }
+
+    int getSourceFileCount() {
+        return sourceFileCount;
+    }
+}
@@ -0,0 +1,299 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Checks the l10n status of the project's resource bundles without generating a report, and fails the build
+ * when a locale does not meet the configured thresholds. A compact summary is written for use by other tools.
+ *
+ * @since 1.2.1
+ */
+@Mojo(name = "check", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class L10NCheckMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true, required = true)
+    private MojoExecution mojoExecution;
+
+    /**
+     * A list of locale strings that are to be watched for l10n status.
+     *
+     * @since 1.2.1
+     */
+    @Parameter
+    private List<String> locales;
+
+    /**
+     * Whether to also check every locale for which a localized bundle file is found, in addition to the
+     * configured <code>locales</code>.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.discoverLocales")
+    private boolean discoverLocales;
+
+    /**
+     * A list of exclude patterns to use. By default no files are excluded.
+     *
+     * @since 1.2.1
+     */
+    @Parameter
+    private List<String> excludes;
+
+    /**
+     * A list of include patterns to use. By default, all files of the configured <code>formats</code> are
+     * included.
+     *
+     * @since 1.2.1
+     */
+    @Parameter
+    private List<String> includes;
+
+    /**
+     * The formats of the bundle files: <code>properties</code>, <code>xml</code> for XML properties files,
+     * <code>json</code> for flat or nested JSON files and <code>po</code> for gettext catalogs with a
+     * <code>.pot</code> template. By default, only <code>.properties</code> files are analysed.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.formats")
+    private List<String> formats;
+
+    /**
+     * Whether to keep the analysed bundles in a cache file between runs. The cache is shared with the report,
+     * and the stored status of the module is used by an aggregated report.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "true", property = "maven.l10n.useCache")
+    private boolean useCache;
+
+    /**
+     * The file holding the cached analysis.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "${project.build.directory}/l10n-status.cache", property = "maven.l10n.cacheFile")
+    private File cacheFile;
+
+    /**
+     * The number of threads used to analyse the bundles. Defaults to the number of available processors.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.threads")
+    private int threads;
+
+    /**
+     * The minimum percentage of default keys that each locale must translate.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "0", property = "maven.l10n.minCoverage")
+    private double minCoverage;
+
+    /**
+     * The maximum number of missing keys allowed per locale. A negative value allows any number.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "-1", property = "maven.l10n.maxMissing")
+    private int maxMissing;
+
+    /**
+     * The maximum number of extra keys allowed per locale. A negative value allows any number.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "-1", property = "maven.l10n.maxAdditional")
+    private int maxAdditional;
+
+    /**
+     * Whether to fail the build when a threshold is not met. Otherwise, violations are only logged.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "true", property = "maven.l10n.failOnViolation")
+    private boolean failOnViolation;
+
+    /**
+     * The file the summary is written to, unless <code>skipSummary</code> is set.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "${project.build.directory}/l10n-status.json", property = "maven.l10n.summaryFile")
+    private File summaryFile;
+
+    /**
+     * Whether to not write the summary file.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.skipSummary")
+    private boolean skipSummary;
+
+    /**
+     * The format of the summary file, either <code>json</code> or <code>csv</code>.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "json", property = "maven.l10n.summaryFormat")
+    private String summaryFormat;
+
+    /**
+     * Skip the check.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.skip")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping l10n check");
+            return;
+        }
+        boolean csv = "csv".equalsIgnoreCase(summaryFormat);
+        if (!csv && !"json".equalsIgnoreCase(summaryFormat)) {
+            throw new MojoExecutionException("Unknown summary format: " + summaryFormat + ", expected json or csv");
+        }
+        List<Resource> resources = project.getResources();
+        if (resources == null || resources.isEmpty()) {
+            return;
+        }
+
+        BundleFormats bundleFormats;
+        try {
+            bundleFormats = BundleFormats.of(formats);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        StatusCache cache = StatusCache.load(
+                useCache ? cacheFile : null,
+                StatusCache.signature(
+                        mojoExecution.getMojoDescriptor().getPluginDescriptor().getVersion(),
+                        includes,
+                        excludes,
+                        bundleFormats),
+                getLog());
+        BundleAnalyzer analyzer = new BundleAnalyzer(
+                locales, discoverLocales, includes, excludes, bundleFormats, cache, useCache, getLog());
+        List<BundleStatus> statuses;
+        try {
+            statuses = analyzer.analyse(
+                    Collections.singletonMap(project, resources),
+                    threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        try {
+            cache.store();
+        } catch (IOException ex) {
+            getLog().warn("Unable to write l10n status cache " + cacheFile + ": " + ex.getMessage());
+        }
+
+        StatusSummary summary = new StatusSummary(
+                project.getGroupId() + ":" + project.getArtifactId(), statuses, analyzer.getLocales());
+        if (!skipSummary && summaryFile != null) {
+            writeSummary(summary, csv);
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (StatusSummary.LocaleTotals totals : summary.getTotals()) {
+            getLog().info(String.format(
+                    Locale.ROOT,
+                    "%s: %.1f%% translated, %d missing, %d extra, %d non-translated",
+                    totals.getLocale(),
+                    totals.getCoverage(),
+                    totals.getMissing(),
+                    totals.getAdditional(),
+                    totals.getNonTranslated()));
+            if (totals.getCoverage() < minCoverage) {
+                violations.add(String.format(
+                        Locale.ROOT,
+                        "Locale %s translates %.1f%% of the keys, less than the required %.1f%%",
+                        totals.getLocale(),
+                        totals.getCoverage(),
+                        minCoverage));
+            }
+            if (maxMissing >= 0 && totals.getMissing() > maxMissing) {
+                violations.add("Locale " + totals.getLocale() + " is missing " + totals.getMissing()
+                        + " keys, more than the allowed " + maxMissing);
+            }
+            if (maxAdditional >= 0 && totals.getAdditional() > maxAdditional) {
+                violations.add("Locale " + totals.getLocale() + " has " + totals.getAdditional()
+                        + " extra keys, more than the allowed " + maxAdditional);
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            if (failOnViolation) {
+                throw new MojoFailureException(String.join(System.lineSeparator(), violations));
+            }
+            for (String violation : violations) {
+                getLog().warn(violation);
+            }
+        }
+    }
+
+    /**
+     * @param csv whether to write the summary as CSV instead of JSON
+     */
+    private void writeSummary(StatusSummary summary, boolean csv) throws MojoExecutionException {
+        try {
+            File parent = summaryFile.getParentFile();
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+            try (Writer out = Files.newBufferedWriter(summaryFile.toPath(), StandardCharsets.UTF_8)) {
+                if (csv) {
+                    summary.writeCsv(out);
+                } else {
+                    summary.writeJson(out);
+                }
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to write l10n summary " + summaryFile, ex);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.mojo.l10n.runtime.CompiledBundleControl;
+
+/**
+ * Compiles the project's resource bundles into a binary format that is read in place at runtime by
+ * {@link CompiledBundleControl}. One file is written per bundle and locale, next to where the bundle is
+ * copied to, with the keys of the parent locales and the default bundle already included.
+ *
+ * @since 1.2.1
+ */
+@Mojo(name = "compile", defaultPhase = LifecyclePhase.PROCESS_RESOURCES, threadSafe = true)
+public class L10NCompileMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * A list of exclude patterns to use. By default no files are excluded.
+     *
+     * @since 1.2.1
+     */
+    @Parameter
+    private List<String> excludes;
+
+    /**
+     * A list of include patterns to use. By default, all files of the configured <code>formats</code> are
+     * included.
+     *
+     * @since 1.2.1
+     */
+    @Parameter
+    private List<String> includes;
+
+    /**
+     * The formats of the bundle files: <code>properties</code>, <code>xml</code> for XML properties files,
+     * <code>json</code> for flat or nested JSON files and <code>po</code> for gettext catalogs with a
+     * <code>.pot</code> template. By default, only <code>.properties</code> files are analysed.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.formats")
+    private List<String> formats;
+
+    /**
+     * The directory the compiled bundles are written to, in the same layout as the resources. Bundles of a
+     * resource with a <code>targetPath</code> are written below that path, like the resources are copied.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", property = "maven.l10n.compileDirectory")
+    private File outputDirectory;
+
+    /**
+     * The number of threads used to compile the bundles. Defaults to the number of available processors.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.threads")
+    private int threads;
+
+    /**
+     * Skip the compilation.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.skip")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping l10n compilation");
+            return;
+        }
+        List<Resource> resources = project.getResources();
+        if (resources == null || resources.isEmpty()) {
+            return;
+        }
+
+        BundleFormats bundleFormats;
+        try {
+            bundleFormats = BundleFormats.of(formats);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        BundleAnalyzer analyzer = new BundleAnalyzer(
+                null, true, includes, excludes, bundleFormats, StatusCache.none(""), false, getLog());
+        int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            Map<BundleAnalyzer.Wrapper, Map<String, File>> bundles =
+                    analyzer.discover(Collections.singletonMap(project, resources), threadCount);
+            List<Callable<Integer>> tasks = new ArrayList<>(bundles.size());
+            for (Map.Entry<BundleAnalyzer.Wrapper, Map<String, File>> entry : bundles.entrySet()) {
+                tasks.add(() -> compile(entry.getKey(), entry.getValue()));
+            }
+            int compiled = 0;
+            int written = 0;
+            for (int count : BundleAnalyzer.invokeAll(pool, tasks)) {
+                if (count >= 0) {
+                    compiled++;
+                    written += count;
+                }
+            }
+            getLog().info("Compiled " + compiled + " resource bundles, " + written + " files changed");
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to compile resource bundles: " + ex.getMessage(), ex);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Compiles the default bundle and each of its locales, unless the compiled file is newer than all the
+     * files it was flattened from and was compiled from the same list of files. The compiled files of locales
+     * whose source file was deleted are deleted as well. Files that are not bundles of their format are skipped.
+     *
+     * @return the number of files written or deleted, or <code>-1</code> if the file is not a bundle
+     */
+    private int compile(BundleAnalyzer.Wrapper wr, Map<String, File> localizedFiles) throws IOException {
+        Level defaults = new Level(null, wr.getFile());
+        if (!defaults.load()) {
+            getLog().debug("Skipping " + wr.getFile() + ", it is not a resource bundle");
+            return -1;
+        }
+        String path = wr.getPath();
+        String base = path.substring(0, path.length() - wr.getFile().getName().length())
+                + BundleFormats.ALL.stem(wr.getFile().getName());
+        File directory = getTargetDirectory(wr.getTargetPath());
+        File target = new File(directory, base + '.' + CompiledBundleControl.SUFFIX);
+        boolean compiled = target.exists();
+        int written = write(defaults, target);
+        Map<String, Level> resolved = new HashMap<>();
+        for (String loc : localizedFiles.keySet()) {
+            Level level = resolve(loc, defaults, localizedFiles, resolved);
+            written += write(level, new File(directory, base + '_' + loc + '.' + CompiledBundleControl.SUFFIX));
+        }
+        if (compiled) {
+            written += deleteRemovedLocales(target, localizedFiles.keySet());
+        }
+        return written;
+    }
+
+    /**
+     * @param targetPath the target path of a resource, may be <code>null</code>
+     * @return the directory the bundles of the resource are compiled to, which is resolved against the output
+     *         directory unless the target path is absolute
+     */
+    private File getTargetDirectory(String targetPath) {
+        if (targetPath == null || targetPath.isEmpty()) {
+            return outputDirectory;
+        }
+        File directory = new File(targetPath);
+        return directory.isAbsolute() ? directory : new File(outputDirectory, targetPath);
+    }
+
+    /**
+     * Deletes the compiled files next to the compiled default bundle of locales that are no longer found.
+     *
+     * @return the number of files deleted
+     */
+    private static int deleteRemovedLocales(File target, Set<String> locales) throws IOException {
+        String suffix = '.' + CompiledBundleControl.SUFFIX;
+        String prefix = target.getName().substring(0, target.getName().length() - suffix.length()) + '_';
+        File[] files =
+                target.getParentFile().listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(suffix));
+        int deleted = 0;
+        for (File file : files != null ? files : new File[0]) {
+            String loc =
+                    file.getName().substring(prefix.length(), file.getName().length() - suffix.length());
+            if (!locales.contains(loc)
+                    && BundleAnalyzer.LOCALE_CODE_PATTERN.matcher(loc).matches()) {
+                Files.delete(file.toPath());
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Flattens a locale with its parent locales, each of which is flattened once per bundle.
+     */
+    private static Level resolve(
+            String loc, Level defaults, Map<String, File> localizedFiles, Map<String, Level> resolved) {
+        Level level = resolved.get(loc);
+        if (level == null) {
+            int parentEnd = loc.lastIndexOf('_');
+            Level parent =
+                    parentEnd > 0 ? resolve(loc.substring(0, parentEnd), defaults, localizedFiles, resolved) : defaults;
+            File file = localizedFiles.get(loc);
+            level = file != null ? new Level(parent, file) : parent;
+            resolved.put(loc, level);
+        }
+        return level;
+    }
+
+    private static int write(Level level, File target) throws IOException {
+        if (target.lastModified() >= level.lastModified && readSources(target) == level.sources) {
+            return 0;
+        }
+        Files.createDirectories(target.getParentFile().toPath());
+        Files.write(target.toPath(), BundleCompiler.compile(level.getProperties(), level.sources));
+        return 1;
+    }
+
+    /**
+     * @return the fingerprint of the source files at the end of a compiled bundle, or <code>0</code> if there
+     *         is no compiled bundle
+     */
+    private static long readSources(File target) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(target, "r")) {
+            if (in.length() < Long.BYTES) {
+                return 0;
+            }
+            in.seek(in.length() - Long.BYTES);
+            return in.readLong();
+        } catch (FileNotFoundException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * The properties of a locale together with those it inherits. The files of the locales are only parsed
+     * when the locale needs to be compiled.
+     */
+    private static class Level {
+
+        private final Level parent;
+
+        private final File file;
+
+        /**
+         * The latest modification time of the files the properties come from.
+         */
+        private final long lastModified;
+
+        /**
+         * The fingerprint of the paths, sizes and modification times of the files the properties come from,
+         * which changes when one of them is deleted, even if the others are older than the compiled bundle.
+         */
+        private final long sources;
+
+        private Map<String, String> properties;
+
+        private boolean bundle;
+
+        Level(Level parent, File file) {
+            this.parent = parent;
+            this.file = file;
+            lastModified = Math.max(parent != null ? parent.lastModified : 0, file.lastModified());
+            sources = Fingerprint.of((parent != null ? parent.sources : 0) + "\0" + file.getPath() + "\0"
+                    + file.length() + "\0" + file.lastModified());
+        }
+
+        /**
+         * Parses the file, unless it was parsed before.
+         *
+         * @return <code>false</code> if the file is not a bundle of its format, whose entries are left out
+         */
+        boolean load() throws IOException {
+            if (properties == null) {
+                Map<String, String> inherited = parent != null ? parent.getProperties() : new HashMap<>();
+                Map<String, String> merged = new HashMap<>(inherited);
+                try {
+                    bundle = BundleFormats.parse(
+                            file.getName(),
+                            Files.readAllBytes(file.toPath()),
+                            (key, value) -> merged.put(key, value.toString()));
+                } catch (IOException ex) {
+                    throw new IOException("Unable to parse " + file + ": " + ex.getMessage(), ex);
+                }
+                properties = bundle ? merged : new HashMap<>(inherited);
+            }
+            return bundle;
+        }
+
+        Map<String, String> getProperties() throws IOException {
+            load();
+            return properties;
+        }
+    }
+}
@@ -19,23 +19,27 @@ package org.codehaus.mojo.l10n;
  * under the License.
  */
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.text.DateFormat;
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Properties;
 import java.util.ResourceBundle;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.model.Resource;
@@ -45,7 +49,6 @@ import org.apache.maven.project.MavenProject;
 import org.apache.maven.reporting.AbstractMavenReport;
 import org.apache.maven.reporting.AbstractMavenReportRenderer;
 import org.apache.maven.reporting.MavenReportException;
-import org.codehaus.plexus.util.DirectoryScanner;
 import org.codehaus.plexus.util.StringUtils;
 
 /**
@@ -67,6 +70,15 @@ public class L10NStatusReport extends AbstractMavenReport {
     @Parameter
     private List<String> locales;
 
+    /**
+     * Whether to also report every locale for which a localized bundle file is found, in addition to the
+     * configured <code>locales</code>. This makes configuring the locales optional.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.discoverLocales")
+    private boolean discoverLocales;
+
     /**
      * A list of exclude patterns to use. By default no files are excluded.
      *
@@ -76,13 +88,31 @@ public class L10NStatusReport extends AbstractMavenReport {
     private List<String> excludes;
 
     /**
-     * A list of include patterns to use. By default, all <code>*.properties</code> files are included.
+     * A list of include patterns to use. By default, all files of the configured <code>formats</code> are
+     * included. Localized bundle files are only found if they are included, too.
      *
      * @since 1.0.0
      */
     @Parameter
     private List<String> includes;
 
+    /**
+     * The formats of the bundle files:
+     * <ul>
+     * <li><code>properties</code> for <code>name_de.properties</code> next to <code>name.properties</code></li>
+     * <li><code>xml</code> for XML properties files, named like <code>.properties</code> files</li>
+     * <li><code>json</code> for flat or nested JSON files, e.g. <code>name.de.json</code> or
+     * <code>name_de-CH.json</code> next to <code>name.json</code>. Nested keys are joined with dots.</li>
+     * <li><code>po</code> for gettext catalogs, e.g. <code>de.po</code> or <code>name-de.po</code> next to the
+     * template <code>name.pot</code>. Fuzzy and untranslated messages count as non-translated.</li>
+     * </ul>
+     * By default, only <code>.properties</code> files are analysed.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.formats")
+    private List<String> formats;
+
     /**
      * Whether to build an aggregated report at the root, or build individual reports.
      *
@@ -91,9 +121,128 @@ public class L10NStatusReport extends AbstractMavenReport {
     @Parameter(defaultValue = "false", property = "maven.l10n.aggregate")
     protected boolean aggregate;
 
-    private static final String[] DEFAULT_INCLUDES = {"**/*.properties"};
+    /**
+     * Whether to keep the analysed bundles in a cache file between runs, so that bundles which have not
+     * changed since the previous run are not parsed and compared again. The status of each module is also
+     * stored in its build directory as <code>l10n-status.bin</code>, which an aggregated report uses instead
+     * of analysing the module again as long as its bundle files and resource directories are unchanged.
+     * <p>
+     * The module statuses are written by the <code>check</code> goal, by non-aggregated reports and by the
+     * aggregated report itself, for its next run. With <code>aggregate</code> set, a module does not write its
+     * status while the site is generated, since the report is only generated at the execution root, which
+     * Maven builds before its modules.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "true", property = "maven.l10n.useCache")
+    private boolean useCache;
+
+    /**
+     * The file holding the cached analysis. It is discarded when the plugin version or the
+     * <code>includes</code>/<code>excludes</code> change.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "${project.build.directory}/l10n-status.cache", property = "maven.l10n.cacheFile")
+    private File cacheFile;
 
-    private static final String[] EMPTY_STRING_ARRAY = {};
+    /**
+     * The number of threads used to scan the resource directories and analyse the bundles.
+     * Defaults to the number of available processors.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.threads")
+    private int threads;
+
+    /**
+     * The maximum number of missing, extra or non-changed keys listed per bundle in a locale's section.
+     * Further keys are only counted. A value of 0 or less lists all keys.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "0", property = "maven.l10n.maxListedKeys")
+    private int maxListedKeys;
+
+    /**
+     * A file to write the timings and counters of the report to, as JSON, broken down per project and per
+     * locale, and per page in a multi-page report. A summary is always logged.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.metricsFile")
+    private File metricsFile;
+
+    /**
+     * Whether to keep memory use bounded by the largest bundle instead of the whole reactor. Every analysed
+     * bundle is then written to a temporary file in the build directory and read back for each part of the
+     * report. Neither the cache nor the stored module statuses are used in this mode.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.boundedMemory")
+    private boolean boundedMemory;
+
+    /**
+     * Whether to search the compile sources of all reactor projects for the keys of the default bundles and
+     * list the keys that are never referenced. A key counts as referenced if it occurs anywhere in a source
+     * file as a whole token, so keys that are only built at runtime are listed as well.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.reportUnusedKeys")
+    private boolean reportUnusedKeys;
+
+    /**
+     * Whether to list, for every missing or non-changed key, a translation of the same default value that
+     * another bundle of the report already has for the locale, e.g. for common values like "Cancel". Values
+     * are compared without leading, trailing and repeated whitespace. Only fingerprints of the values are
+     * held in memory, which are taken while the bundles are analysed.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.reportReusableTranslations")
+    private boolean reportReusableTranslations;
+
+    /**
+     * A file to save a snapshot of the analysis to, for use as the <code>baseline</code> of later reports.
+     * The snapshot only holds fingerprints of the missing, extra, non-changed and mismatched keys of every
+     * bundle and locale, so it is small enough to be committed or kept as a build artifact.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.saveBaseline")
+    private File saveBaseline;
+
+    /**
+     * A snapshot saved with <code>saveBaseline</code>. If set, the report only lists the keys that became
+     * missing, extra, non-changed or mismatched since the snapshot was taken, instead of the full status.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.baseline")
+    private File baseline;
+
+    /**
+     * Whether to split the report into a summary page and one page per locale, instead of rendering all
+     * locales on one page. The pages are rendered in parallel, each through its own sink. Together with
+     * <code>maxListedKeys</code>, this keeps the size of every page bounded. The additional pages are only
+     * written when the report is generated as part of a site.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.multiPage")
+    private boolean multiPage;
+
+    /**
+     * Whether a multi-page report of more than one project has a page per project, with the summary of the
+     * project's bundles, and a page per project and locale, instead of a page per locale. The summary page
+     * then only lists the totals of each project.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.pagesPerProject")
+    private boolean pagesPerProject;
 
     @Override
     public boolean canGenerateReport() {
@@ -128,59 +277,248 @@ public class L10NStatusReport extends AbstractMavenReport {
      */
     @Override
     protected void executeReport(Locale locale) throws MavenReportException {
-        Set<Wrapper> included = new TreeSet<>(new WrapperComparator());
-        Map<MavenProject, List<Resource>> res = constructResourceDirs();
-        for (Map.Entry<MavenProject, List<Resource>> entry : res.entrySet()) {
-            MavenProject prj = entry.getKey();
-            List<Resource> lst = entry.getValue();
-            for (Resource resource : lst) {
-                File resourceDirectory = new File(resource.getDirectory());
-
-                if (!resourceDirectory.exists()) {
-                    getLog().info("Resource directory does not exist: " + resourceDirectory);
-                    continue;
-                }
+        BundleFormats bundleFormats;
+        try {
+            bundleFormats = BundleFormats.of(formats);
+        } catch (IllegalArgumentException ex) {
+            throw new MavenReportException(ex.getMessage(), ex);
+        }
+        String signature = StatusCache.signature(
+                mojoExecution.getMojoDescriptor().getPluginDescriptor().getVersion(),
+                includes,
+                excludes,
+                bundleFormats);
+        StatusCache cache = boundedMemory
+                ? StatusCache.none(signature)
+                : StatusCache.load(useCache ? cacheFile : null, signature, getLog());
+        BundleAnalyzer analyzer = new BundleAnalyzer(
+                locales,
+                discoverLocales,
+                includes,
+                excludes,
+                bundleFormats,
+                cache,
+                useCache && !boundedMemory,
+                getLog());
+        ReportMetrics metrics = analyzer.getMetrics();
+        StatusSpill spill = null;
+        try {
+            Iterable<BundleStatus> statuses;
+            if (boundedMemory) {
+                spill = new StatusSpill(new File(project.getBuild().getDirectory()), analyzer.getLocales());
+                analyzer.analyse(constructResourceDirs(), getThreadCount(), spill);
+                statuses = spill;
+            } else {
+                statuses = analyzer.analyse(constructResourceDirs(), getThreadCount());
+            }
+            KeyUsage usage = null;
+            if (reportUnusedKeys) {
+                long start = System.nanoTime();
+                usage = KeyUsage.scan(statuses, reactorProjects, getThreadCount(), getLog());
+                metrics.addElapsed("sources", System.nanoTime() - start);
+                getLog().info("L10n keys: " + usage.getUnusedCount() + " of " + usage.getKeyCount()
+                        + " not referenced in " + usage.getSourceFileCount() + " source files");
+            }
 
-                DirectoryScanner scanner = new DirectoryScanner();
+            TranslationReuse reuse = null;
+            if (reportReusableTranslations) {
+                long start = System.nanoTime();
+                reuse = TranslationReuse.build(statuses, analyzer.getLocales(), analyzer.getLocalizedFiles());
+                metrics.addElapsed("reuse", System.nanoTime() - start);
+                getLog().info("L10n keys: " + reuse.getTotalCount()
+                        + " missing or non-changed keys have a translation in another bundle");
+            }
 
-                scanner.setBasedir(resource.getDirectory());
-                List<String> allIncludes = new ArrayList<>();
-                if (resource.getIncludes() != null && !resource.getIncludes().isEmpty()) {
-                    allIncludes.addAll(resource.getIncludes());
-                }
-                if (includes != null && !includes.isEmpty()) {
-                    allIncludes.addAll(includes);
+            Baseline base = null;
+            if (baseline != null) {
+                if (baseline.isFile()) {
+                    base = Baseline.read(baseline);
+                } else {
+                    getLog().warn("L10n baseline " + baseline + " does not exist, reporting the full status");
                 }
+            }
 
-                if (allIncludes.isEmpty()) {
-                    scanner.setIncludes(DEFAULT_INCLUDES);
-                } else {
-                    scanner.setIncludes(allIncludes.toArray(EMPTY_STRING_ARRAY));
+            boolean multiProject = reactorProjects.size() > 1;
+            ReportPages pages = null;
+            Map<MavenProject, Iterable<BundleStatus>> byProject = null;
+            if (multiPage && getSinkFactory() == null) {
+                getLog().info("A multi-page l10n status report is only generated as part of a site,"
+                        + " rendering a single page");
+            } else if (multiPage) {
+                if (pagesPerProject && multiProject) {
+                    byProject = spill != null ? spill.byProject() : groupByProject(statuses);
                 }
+                pages = new ReportPages(getOutputName(), byProject != null ? byProject.keySet() : null);
+            }
+
+            // Write the overview
+            long start = System.nanoTime();
+            L10NStatusRenderer r = new L10NStatusRenderer(
+                    getSink(),
+                    getBundle(locale),
+                    metrics.timed(statuses, ReportMetrics.Phase.RENDER),
+                    analyzer.getLocales(),
+                    locale,
+                    multiProject,
+                    maxListedKeys,
+                    usage,
+                    reuse,
+                    base,
+                    pages);
+            if (pages != null) {
+                renderPages(
+                        r,
+                        pages,
+                        statuses,
+                        byProject,
+                        metrics,
+                        analyzer.getLocales(),
+                        base != null,
+                        usage != null,
+                        reuse != null);
+            } else {
+                r.render();
+            }
+            metrics.addElapsed("render", System.nanoTime() - start);
 
-                List<String> allExcludes = new ArrayList<>();
-                if (resource.getExcludes() != null && !resource.getExcludes().isEmpty()) {
-                    allExcludes.addAll(resource.getExcludes());
-                } else if (excludes != null && !excludes.isEmpty()) {
-                    allExcludes.addAll(excludes);
+            if (saveBaseline != null) {
+                Baseline.write(saveBaseline, statuses);
+            }
+        } catch (IOException ex) {
+            throw new MavenReportException(ex.getMessage(), ex);
+        } catch (UncheckedIOException ex) {
+            throw new MavenReportException(ex.getMessage(), ex.getCause());
+        } finally {
+            if (spill != null) {
+                try {
+                    spill.close();
+                } catch (IOException ex) {
+                    getLog().warn("Unable to delete l10n status spill file: " + ex.getMessage());
                 }
+            }
+        }
 
-                scanner.setExcludes(allExcludes.toArray(EMPTY_STRING_ARRAY));
+        try {
+            cache.store();
+        } catch (IOException ex) {
+            getLog().warn("Unable to write l10n status cache " + cacheFile + ": " + ex.getMessage());
+        }
 
-                scanner.addDefaultExcludes();
-                scanner.scan();
+        metrics.log(getLog());
+        if (metricsFile != null) {
+            try {
+                File parent = metricsFile.getParentFile();
+                if (parent != null) {
+                    Files.createDirectories(parent.toPath());
+                }
+                try (Writer out = Files.newBufferedWriter(metricsFile.toPath(), StandardCharsets.UTF_8)) {
+                    metrics.writeJson(out);
+                }
+            } catch (IOException ex) {
+                getLog().warn("Unable to write l10n metrics " + metricsFile + ": " + ex.getMessage());
+            }
+        }
+    }
 
-                String[] includedFiles = scanner.getIncludedFiles();
-                for (String name : includedFiles) {
-                    File source = new File(resource.getDirectory(), name);
-                    included.add(new Wrapper(name, source, prj));
+    /**
+     * Renders the summary page and the pages it links to in parallel. The sinks of all pages are created
+     * up front, as the sink factory is not meant to be used by several threads. The time of every page is
+     * recorded, and the time of every bundle on it for its project.
+     *
+     * @param byProject the bundles of each project, or <code>null</code> for pages per locale only
+     */
+    private void renderPages(
+            L10NStatusRenderer summary,
+            ReportPages pages,
+            Iterable<BundleStatus> statuses,
+            Map<MavenProject, Iterable<BundleStatus>> byProject,
+            ReportMetrics metrics,
+            List<String> reportLocales,
+            boolean delta,
+            boolean unusedKeys,
+            boolean reusableTranslations)
+            throws IOException, MavenReportException {
+        Map<String, L10NStatusRenderer> renderers = new LinkedHashMap<>();
+        renderers.put(getOutputName(), summary);
+        if (!delta) {
+            if (byProject != null) {
+                for (Map.Entry<MavenProject, Iterable<BundleStatus>> entry : byProject.entrySet()) {
+                    MavenProject prj = entry.getKey();
+                    String name = pages.getProjectPage(prj);
+                    Iterable<BundleStatus> projectStatuses =
+                            metrics.timed(entry.getValue(), ReportMetrics.Phase.RENDER);
+                    renderers.put(name, new ProjectPageRenderer(createSink(name), summary, projectStatuses, prj));
+                    for (String x : reportLocales) {
+                        name = pages.getLocalePage(prj, x);
+                        renderers.put(name, new LocalePageRenderer(createSink(name), summary, projectStatuses, x, prj));
+                    }
+                }
+            } else {
+                Iterable<BundleStatus> timed = metrics.timed(statuses, ReportMetrics.Phase.RENDER);
+                for (String x : reportLocales) {
+                    String name = pages.getLocalePage(x);
+                    renderers.put(name, new LocalePageRenderer(createSink(name), summary, timed, x, null));
                 }
             }
+            if (unusedKeys) {
+                String name = pages.getUnusedPage();
+                renderers.put(name, new UnusedKeysPageRenderer(createSink(name), summary));
+            }
+            if (reusableTranslations) {
+                String name = pages.getReusePage();
+                renderers.put(name, new ReusePageRenderer(createSink(name), summary));
+            }
         }
 
-        // Write the overview
-        L10NStatusRenderer r = new L10NStatusRenderer(getSink(), getBundle(locale), included, locale);
-        r.render();
+        ForkJoinPool pool = new ForkJoinPool(getThreadCount());
+        try {
+            Map<String, Future<?>> futures = new LinkedHashMap<>();
+            for (Map.Entry<String, L10NStatusRenderer> entry : renderers.entrySet()) {
+                futures.put(entry.getKey(), pool.submit(() -> {
+                    long start = System.nanoTime();
+                    entry.getValue().render();
+                    metrics.addPage(entry.getKey(), System.nanoTime() - start);
+                }));
+            }
+            for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new MavenReportException("Interrupted while rendering l10n status pages", ex);
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof UncheckedIOException) {
+                        throw ((UncheckedIOException) ex.getCause()).getCause();
+                    }
+                    throw new MavenReportException(
+                            "Unable to render l10n status page " + entry.getKey() + ": "
+                                    + ex.getCause().getMessage(),
+                            ex);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        getLog().debug("Rendered " + renderers.size() + " l10n status pages");
+    }
+
+    private Sink createSink(String pageName) throws IOException {
+        return getSinkFactory().createSink(getReportOutputDirectory(), pageName + ".html");
+    }
+
+    /**
+     * Groups the bundles by project, in the order the projects first occur.
+     */
+    private static Map<MavenProject, Iterable<BundleStatus>> groupByProject(Iterable<BundleStatus> statuses) {
+        Map<MavenProject, List<BundleStatus>> lists = new LinkedHashMap<>();
+        for (BundleStatus status : statuses) {
+            lists.computeIfAbsent(status.getProject(), prj -> new ArrayList<>()).add(status);
+        }
+        return new LinkedHashMap<>(lists);
+    }
+
+    private int getThreadCount() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
     }
 
     /**
@@ -207,33 +545,179 @@ public class L10NStatusReport extends AbstractMavenReport {
         return "l10n-status";
     }
 
-    private static ResourceBundle getBundle(Locale locale) {
+    static ResourceBundle getBundle(Locale locale) {
         return ResourceBundle.getBundle("l10n-status-report", locale, L10NStatusReport.class.getClassLoader());
     }
 
+    /**
+     * The names of the pages of a multi-page report, without the extension.
+     */
+    static class ReportPages {
+
+        private final String summary;
+
+        /**
+         * The identifier of each project in the page names, or <code>null</code> if there are no pages per
+         * project.
+         */
+        private final Map<MavenProject, String> projectIds;
+
+        /**
+         * @param summary the name of the summary page
+         * @param projects the projects to render pages for, or <code>null</code> for pages per locale only
+         */
+        ReportPages(String summary, Collection<MavenProject> projects) {
+            this.summary = summary;
+            if (projects == null) {
+                projectIds = null;
+                return;
+            }
+            // The artifact id is enough, unless it is shared by projects of different groups
+            Map<String, Integer> artifactIds = new HashMap<>();
+            for (MavenProject prj : projects) {
+                artifactIds.merge(prj.getArtifactId(), 1, Integer::sum);
+            }
+            projectIds = new HashMap<>();
+            for (MavenProject prj : projects) {
+                String id = artifactIds.get(prj.getArtifactId()) > 1
+                        ? prj.getGroupId() + '.' + prj.getArtifactId()
+                        : prj.getArtifactId();
+                projectIds.put(prj, id);
+            }
+        }
+
+        boolean isPerProject() {
+            return projectIds != null;
+        }
+
+        String getLocalePage(String localeCode) {
+            return summary + '-' + localeCode;
+        }
+
+        String getProjectPage(MavenProject prj) {
+            return summary + "-module-" + projectIds.get(prj);
+        }
+
+        String getLocalePage(MavenProject prj, String localeCode) {
+            return getProjectPage(prj) + '-' + localeCode;
+        }
+
+        String getUnusedPage() {
+            return summary + "-unused";
+        }
+
+        String getReusePage() {
+            return summary + "-reuse";
+        }
+    }
+
     /**
      * Generates an overview page with a list of properties bundles
-     * and a link to each locale's status.
+     * and a link to each locale's status. In a multi-page report, the locales are linked to their own
+     * pages instead.
      */
-    class L10NStatusRenderer extends AbstractMavenReportRenderer {
+    static class L10NStatusRenderer extends AbstractMavenReportRenderer {
 
-        private final ResourceBundle bundle;
+        protected final ResourceBundle bundle;
 
         /**
          * The locale in which the report will be rendered.
          */
         private final Locale rendererLocale;
 
-        private final Set<Wrapper> files;
+        private final Iterable<BundleStatus> statuses;
+
+        private final List<String> locales;
 
-        private final Pattern localedPattern = Pattern.compile(".*_[a-zA-Z]{2}[_]?[a-zA-Z]{0,2}?\\.properties");
+        /**
+         * Whether the bundles come from more than one project and are grouped by project.
+         */
+        private final boolean multiProject;
+
+        private final int maxListedKeys;
+
+        /**
+         * The references of the keys in the sources, or <code>null</code> if the sources were not searched.
+         */
+        private final KeyUsage usage;
 
-        public L10NStatusRenderer(Sink sink, ResourceBundle bundle, Set<Wrapper> files, Locale rendererLocale) {
+        /**
+         * The translations that can be reused for other bundles, or <code>null</code> if they were not
+         * searched.
+         */
+        private final TranslationReuse reuse;
+
+        /**
+         * The snapshot to report the changes since, or <code>null</code> to report the full status.
+         */
+        private final Baseline baseline;
+
+        /**
+         * The pages of a multi-page report, or <code>null</code> to render everything on this page.
+         */
+        private final ReportPages pages;
+
+        private final String okLabel;
+
+        private final String moreKeysLabel;
+
+        private final Map<String, String> localeDisplayNames = new HashMap<>();
+
+        public L10NStatusRenderer(
+                Sink sink,
+                ResourceBundle bundle,
+                Iterable<BundleStatus> statuses,
+                List<String> locales,
+                Locale rendererLocale,
+                boolean multiProject,
+                int maxListedKeys,
+                KeyUsage usage,
+                TranslationReuse reuse,
+                Baseline baseline,
+                ReportPages pages) {
             super(sink);
 
             this.bundle = bundle;
-            this.files = files;
+            this.statuses = statuses;
+            this.locales = locales;
             this.rendererLocale = rendererLocale;
+            this.multiProject = multiProject;
+            this.maxListedKeys = maxListedKeys;
+            this.usage = usage;
+            this.reuse = reuse;
+            this.baseline = baseline;
+            this.pages = pages;
+            okLabel = bundle.getString("report.l10n.ok");
+            moreKeysLabel = bundle.getString("report.l10n.moreKeys");
+            for (String localeCode : locales) {
+                Locale locale = createLocale(localeCode);
+                if (locale == null) {
+                    // If the localeCode were in an unknown format use the localeCode itself as a fallback value
+                    localeDisplayNames.put(localeCode, localeCode);
+                } else {
+                    localeDisplayNames.put(localeCode, locale.getDisplayName(rendererLocale));
+                }
+            }
+        }
+
+        /**
+         * Creates the renderer of another page of a multi-page report, with the settings of the summary page.
+         *
+         * @param statuses the bundles to render on the page
+         */
+        protected L10NStatusRenderer(Sink sink, L10NStatusRenderer summary, Iterable<BundleStatus> statuses) {
+            this(
+                    sink,
+                    summary.bundle,
+                    statuses,
+                    summary.locales,
+                    summary.rendererLocale,
+                    false,
+                    summary.maxListedKeys,
+                    summary.usage,
+                    summary.reuse,
+                    null,
+                    summary.pages);
         }
 
         /**
@@ -248,139 +732,209 @@ public class L10NStatusReport extends AbstractMavenReport {
          */
         public void renderBody() {
             startSection(getTitle());
+            if (baseline != null) {
+                renderDelta();
+                endSection();
+                return;
+            }
 
             paragraph(bundle.getString("report.l10n.intro"));
             startSection(bundle.getString("report.l10n.summary"));
+            if (pages != null && pages.isPerProject()) {
+                renderProjectTable();
+            } else {
+                renderSummaryTable();
+            }
+            renderLegend();
+            endSection();
 
+            if (pages != null) {
+                if (!pages.isPerProject()) {
+                    renderLocaleLinks(null);
+                }
+                if (usage != null) {
+                    sink.paragraph();
+                    link(pages.getUnusedPage() + ".html", bundle.getString("report.l10n.unused"));
+                    sink.paragraph_();
+                }
+                if (reuse != null) {
+                    sink.paragraph();
+                    link(pages.getReusePage() + ".html", bundle.getString("report.l10n.reuse"));
+                    sink.paragraph_();
+                }
+            } else {
+                renderLocaleLinks(null);
+                for (String x : locales) {
+                    startSection(getLocaleTitle(x));
+                    sink.anchor(x);
+                    sink.anchor_();
+                    renderLocaleTable(x);
+                    endSection();
+                }
+                if (usage != null) {
+                    renderUnusedKeys();
+                }
+                if (reuse != null) {
+                    renderReusableTranslations();
+                }
+            }
+            endSection();
+        }
+
+        /**
+         * Renders a table with the number of keys of every bundle and the status of each locale.
+         */
+        protected void renderSummaryTable() {
             startTable();
             tableCaption(bundle.getString("report.l10n.summary.caption"));
-            String defaultLocaleColumnName = bundle.getString("report.l10n.column.default");
-            String pathColumnName = bundle.getString("report.l10n.column.path");
             String missingFileLabel = bundle.getString("report.l10n.missingFile");
             String missingKeysLabel = bundle.getString("report.l10n.missingKey");
-            String okLabel = bundle.getString("report.l10n.ok");
             String totalLabel = bundle.getString("report.l10n.total");
             String additionalKeysLabel = bundle.getString("report.l10n.additional");
             String nontranslatedKeysLabel = bundle.getString("report.l10n.nontranslated");
-            String[] headers = new String[locales != null ? locales.size() + 2 : 2];
-            Map<String, String> localeDisplayNames = new HashMap<>();
-            headers[0] = pathColumnName;
-            headers[1] = defaultLocaleColumnName;
-            if (locales != null) {
-                int ind = 2;
-                for (String localeCode : locales) {
-                    headers[ind] = localeCode;
-                    ind = ind + 1;
-
-                    Locale locale = createLocale(localeCode);
-                    if (locale == null) {
-                        // If the localeCode were in an unknown format use the localeCode itself as a fallback value
-                        localeDisplayNames.put(localeCode, localeCode);
-                    } else {
-                        localeDisplayNames.put(localeCode, locale.getDisplayName(rendererLocale));
-                    }
-                }
+            String mismatchedKeysLabel = bundle.getString("report.l10n.mismatched");
+            String inheritedKeysLabel = bundle.getString("report.l10n.inherited");
+            String[] headers = new String[locales.size() + 2];
+            headers[0] = bundle.getString("report.l10n.column.path");
+            headers[1] = bundle.getString("report.l10n.column.default");
+            int ind = 2;
+            for (String localeCode : locales) {
+                headers[ind] = localeCode;
+                ind = ind + 1;
             }
             tableHeader(headers);
-            int[] count = new int[locales != null ? locales.size() + 1 : 1];
+            int[] count = new int[locales.size() + 1];
             Arrays.fill(count, 0);
             MavenProject lastPrj = null;
-            Set<Wrapper> usedFiles = new TreeSet<>(new WrapperComparator());
-            for (Wrapper wr : files) {
-                if (reactorProjects.size() > 1 && (lastPrj == null || lastPrj != wr.getProject())) {
-                    lastPrj = wr.getProject();
+            for (BundleStatus status : statuses) {
+                if (multiProject && (lastPrj == null || lastPrj != status.getProject())) {
+                    lastPrj = status.getProject();
                     sink.tableRow();
-                    String name = wr.getProject().getName();
-                    if (name == null) {
-                        name = wr.getProject().getGroupId() + ":"
-                                + wr.getProject().getArtifactId();
-                    }
-                    tableCell("<b><i>" + name + "</b></i>", true);
+                    tableCell("<b><i>" + getProjectName(lastPrj) + "</b></i>", true);
                     sink.tableRow_();
                 }
-                if (wr.getFile().getName().endsWith(".properties")
-                        && !localedPattern.matcher(wr.getFile().getName()).matches()) {
-                    usedFiles.add(wr);
-                    sink.tableRow();
-                    tableCell(wr.getPath());
-                    Properties props = new Properties();
-                    try (BufferedInputStream in = new BufferedInputStream(
-                            Files.newInputStream(wr.getFile().toPath()))) {
-                        props.load(in);
-                        wr.getProperties().put(Wrapper.DEFAULT_LOCALE, props);
-                        tableCell("" + props.size(), true);
-                        count[0] = count[0] + props.size();
-                        if (locales != null) {
-                            int i = 1;
-                            for (String loc : locales) {
-                                String nm = wr.getFile().getName();
-                                String fn = nm.substring(0, nm.length() - ".properties".length());
-                                File locFile = new File(wr.getFile().getParentFile(), fn + "_" + loc + ".properties");
-                                if (locFile.exists()) {
-                                    Properties props2 = new Properties();
-                                    try (BufferedInputStream in2 =
-                                            new BufferedInputStream(Files.newInputStream(locFile.toPath()))) {
-                                        props2.load(in2);
-                                        wr.getProperties().put(loc, props2);
-                                        Set<String> missing = new HashSet<>(props.stringPropertyNames());
-                                        missing.removeAll(props2.stringPropertyNames());
-                                        Set<String> additional = new HashSet<>(props2.stringPropertyNames());
-                                        additional.removeAll(props.stringPropertyNames());
-                                        Set<String> nonTranslated = new HashSet<>();
-                                        for (String k : props.stringPropertyNames()) {
-                                            String val1 = props.getProperty(k);
-                                            String val2 = props2.getProperty(k);
-                                            if (val1.equals(val2)) {
-                                                nonTranslated.add(k);
-                                            }
-                                        }
-                                        count[i] = count[i] + (props.size() - missing.size() - nonTranslated.size());
-                                        StringBuilder statusRows = new StringBuilder();
-                                        if (!missing.isEmpty()) {
-                                            statusRows
-                                                    .append("<tr><td>")
-                                                    .append(missingKeysLabel)
-                                                    .append("</td><td><b>")
-                                                    .append(missing.size())
-                                                    .append("</b></td></tr>");
-                                        } else {
-                                            statusRows.append("<tr><td>&nbsp;</td><td>&nbsp;</td></tr>");
-                                        }
-                                        if (!additional.isEmpty()) {
-                                            statusRows
-                                                    .append("<tr><td>")
-                                                    .append(additionalKeysLabel)
-                                                    .append("</td><td><b>")
-                                                    .append(additional.size())
-                                                    .append("</b></td></tr>");
-                                        } else {
-                                            statusRows.append("<tr><td>&nbsp;</td><td>&nbsp;</td></tr>");
-                                        }
-                                        if (!nonTranslated.isEmpty()) {
-                                            statusRows
-                                                    .append("<tr><td>")
-                                                    .append(nontranslatedKeysLabel)
-                                                    .append("</td><td><b>")
-                                                    .append(nonTranslated.size())
-                                                    .append("</b></td></tr>");
-                                        }
-                                        tableCell(wrapInTable(okLabel, statusRows.toString()), true);
-                                    }
-                                } else {
-                                    tableCell(missingFileLabel);
-                                    count[i] += 0;
-                                }
-                                i = i + 1;
-                            }
+                sink.tableRow();
+                tableCell(status.getPath());
+                tableCell("" + status.getKeyCount(), true);
+                count[0] = count[0] + status.getKeyCount();
+                int i = 1;
+                for (LocaleDiff diff : status.getDiffs()) {
+                    count[i] = count[i] + diff.getTranslatedCount();
+                    if (diff.isPresent() || diff.getInheritedCount() > 0) {
+                        int missing = diff.getMissingCount();
+                        int additional = diff.getAdditionalCount();
+                        int nonTranslated = diff.getNonTranslatedCount();
+                        int mismatched = diff.getMismatchedCount();
+                        int inherited = diff.getInheritedCount();
+                        StringBuilder statusRows = new StringBuilder();
+                        if (missing > 0) {
+                            statusRows
+                                    .append("<tr><td>")
+                                    .append(missingKeysLabel)
+                                    .append("</td><td><b>")
+                                    .append(missing)
+                                    .append("</b></td></tr>");
+                        } else {
+                            statusRows.append("<tr><td>&nbsp;</td><td>&nbsp;</td></tr>");
                         }
-                    } catch (IOException ex) {
-                        getLog().error(ex);
+                        if (additional > 0) {
+                            statusRows
+                                    .append("<tr><td>")
+                                    .append(additionalKeysLabel)
+                                    .append("</td><td><b>")
+                                    .append(additional)
+                                    .append("</b></td></tr>");
+                        } else {
+                            statusRows.append("<tr><td>&nbsp;</td><td>&nbsp;</td></tr>");
+                        }
+                        if (nonTranslated > 0) {
+                            statusRows
+                                    .append("<tr><td>")
+                                    .append(nontranslatedKeysLabel)
+                                    .append("</td><td><b>")
+                                    .append(nonTranslated)
+                                    .append("</b></td></tr>");
+                        }
+                        if (mismatched > 0) {
+                            statusRows
+                                    .append("<tr><td>")
+                                    .append(mismatchedKeysLabel)
+                                    .append("</td><td><b>")
+                                    .append(mismatched)
+                                    .append("</b></td></tr>");
+                        }
+                        if (inherited > 0) {
+                            statusRows
+                                    .append("<tr><td>")
+                                    .append(inheritedKeysLabel)
+                                    .append("</td><td>")
+                                    .append(inherited)
+                                    .append("</td></tr>");
+                        }
+                        tableCell(wrapInTable(okLabel, statusRows.toString()), true);
+                    } else {
+                        tableCell(missingFileLabel);
                     }
-                    sink.tableRow_();
+                    i = i + 1;
                 }
+                sink.tableRow_();
             }
             sink.tableRow();
             tableCell(totalLabel);
+            renderTotals(count);
+            sink.tableRow_();
+
+            endTable();
+        }
+
+        /**
+         * Renders a table with the number of keys and the number of translated keys of each locale per
+         * project, linking every project to its page.
+         */
+        private void renderProjectTable() {
+            startTable();
+            tableCaption(bundle.getString("report.l10n.summary.caption"));
+            String[] headers = new String[locales.size() + 2];
+            headers[0] = bundle.getString("report.l10n.column.project");
+            headers[1] = bundle.getString("report.l10n.column.default");
+            for (int i = 0; i < locales.size(); i++) {
+                headers[i + 2] = locales.get(i);
+            }
+            tableHeader(headers);
+            Map<MavenProject, int[]> projectCounts = new LinkedHashMap<>();
+            for (BundleStatus status : statuses) {
+                int[] count = projectCounts.computeIfAbsent(status.getProject(), prj -> new int[locales.size() + 1]);
+                count[0] = count[0] + status.getKeyCount();
+                int i = 1;
+                for (LocaleDiff diff : status.getDiffs()) {
+                    count[i] = count[i] + diff.getTranslatedCount();
+                    i = i + 1;
+                }
+            }
+            int[] total = new int[locales.size() + 1];
+            for (Map.Entry<MavenProject, int[]> entry : projectCounts.entrySet()) {
+                sink.tableRow();
+                sink.tableCell();
+                link(pages.getProjectPage(entry.getKey()) + ".html", getProjectName(entry.getKey()));
+                sink.tableCell_();
+                renderTotals(entry.getValue());
+                sink.tableRow_();
+                for (int i = 0; i < total.length; i++) {
+                    total[i] = total[i] + entry.getValue()[i];
+                }
+            }
+            sink.tableRow();
+            tableCell(bundle.getString("report.l10n.total"));
+            renderTotals(total);
+            sink.tableRow_();
+            endTable();
+        }
+
+        /**
+         * Renders the cells with the number of keys and the number and percentage of translated keys of each
+         * locale.
+         */
+        private void renderTotals(int[] count) {
             for (int i = 0; i < count.length; i++) {
                 if (i != 0 && count[0] != 0) {
                     tableCell("<b>" + count[i] + "</b><br />(" + (count[i] * 100 / count[0]) + "&nbsp;%)", true);
@@ -388,10 +942,9 @@ public class L10NStatusReport extends AbstractMavenReport {
                     tableCell("<b>" + count[i] + "</b>", true);
                 }
             }
-            sink.tableRow_();
-
-            endTable();
+        }
 
+        protected void renderLegend() {
             paragraph(bundle.getString("report.l10n.legend"));
 
             sink.list();
@@ -404,88 +957,225 @@ public class L10NStatusReport extends AbstractMavenReport {
             sink.listItem();
             text(bundle.getString("report.l10n.list3"));
             sink.listItem_();
+            sink.listItem();
+            text(bundle.getString("report.l10n.list4"));
+            sink.listItem_();
+            sink.listItem();
+            text(bundle.getString("report.l10n.list5"));
+            sink.listItem_();
             sink.list_();
             sink.paragraph();
             text(bundle.getString("report.l10n.note"));
             sink.paragraph_();
-            endSection();
+        }
 
-            if (locales != null) {
-                sink.list();
-                for (String x : locales) {
-                    sink.listItem();
-                    link("#" + x, x + " - " + localeDisplayNames.get(x));
-                    sink.listItem_();
+        /**
+         * Renders a list of links to the status of each locale: to the sections of this page, or to the pages
+         * of a multi-page report.
+         *
+         * @param prj the project whose locale pages are linked, or <code>null</code>
+         */
+        protected void renderLocaleLinks(MavenProject prj) {
+            if (locales.isEmpty()) {
+                return;
+            }
+            sink.list();
+            for (String x : locales) {
+                sink.listItem();
+                String href;
+                if (pages == null) {
+                    href = "#" + x;
+                } else if (prj == null) {
+                    href = pages.getLocalePage(x) + ".html";
+                } else {
+                    href = pages.getLocalePage(prj, x) + ".html";
                 }
-                sink.list_();
+                link(href, getLocaleTitle(x));
+                sink.listItem_();
+            }
+            sink.list_();
+        }
 
-                for (String x : locales) {
-                    startSection(x + " - " + localeDisplayNames.get(x));
-                    sink.anchor(x);
-                    sink.anchor_();
-                    startTable();
-                    tableCaption(bundle.getString("report.l10n.locale") + " " + localeDisplayNames.get(x));
-                    tableHeader(new String[] {
-                        bundle.getString("report.l10n.tableheader1"),
-                        bundle.getString("report.l10n.tableheader2"),
-                        bundle.getString("report.l10n.tableheader3"),
-                        bundle.getString("report.l10n.tableheader4")
-                    });
-
-                    for (Wrapper wr : usedFiles) {
-                        sink.tableRow();
-                        tableCell(wr.getPath());
-                        Properties defs = wr.getProperties().get(Wrapper.DEFAULT_LOCALE);
-                        Properties locals = wr.getProperties().get(x);
-                        if (locals == null) {
-                            locals = new Properties();
-                        }
-                        Set<String> missing = new TreeSet<>(defs.stringPropertyNames());
-                        missing.removeAll(locals.stringPropertyNames());
-                        String cell = "";
-                        for (String s : missing) {
-                            cell = cell + "<tr><td>" + s + "</td></tr>";
-                        }
-                        tableCell(wrapInTable(okLabel, cell), true);
-                        Set<String> additional = new TreeSet<>(locals.stringPropertyNames());
-                        additional.removeAll(defs.stringPropertyNames());
-                        cell = "";
-                        for (String ex : additional) {
-                            cell = cell + "<tr><td>" + ex + "</td></tr>";
-                        }
-                        tableCell(wrapInTable(okLabel, cell), true);
-                        Set<String> nonTranslated = new TreeSet<>();
-                        for (String k : defs.stringPropertyNames()) {
-                            String val1 = defs.getProperty(k);
-                            String val2 = locals.getProperty(k);
-                            if (val1.equals(val2)) {
-                                nonTranslated.add(k);
-                            }
-                        }
+        protected String getLocaleTitle(String localeCode) {
+            return localeCode + " - " + localeDisplayNames.get(localeCode);
+        }
 
-                        cell = "";
-                        for (String n : nonTranslated) {
-                            cell = cell + "<tr><td>" + n + "</td><td>\"" + defs.getProperty(n) + "\"</td></tr>";
-                        }
+        /**
+         * Renders a table with the missing, inherited, extra, non-changed and mismatched keys of every bundle
+         * in a locale.
+         */
+        protected void renderLocaleTable(String x) {
+            startTable();
+            tableCaption(bundle.getString("report.l10n.locale") + " " + localeDisplayNames.get(x));
+            tableHeader(new String[] {
+                bundle.getString("report.l10n.tableheader1"),
+                bundle.getString("report.l10n.tableheader2"),
+                bundle.getString("report.l10n.tableheader6"),
+                bundle.getString("report.l10n.tableheader3"),
+                bundle.getString("report.l10n.tableheader4"),
+                bundle.getString("report.l10n.tableheader5")
+            });
 
-                        tableCell(wrapInTable(okLabel, cell), true);
+            for (BundleStatus status : statuses) {
+                sink.tableRow();
+                tableCell(status.getPath());
+                LocaleDiff diff = status.getDiff(x);
+                keyListCell(diff.getMissing(), null);
+                keyListCell(diff.getInherited(), null);
+                keyListCell(diff.getAdditional(), null);
+                keyListCell(diff.getNonTranslated(), diff.getNonTranslatedValues());
+                keyListCell(diff.getMismatched(), diff.getMismatchedValues());
+                sink.tableRow_();
+            }
+            endTable();
+        }
 
-                        sink.tableRow_();
+        /**
+         * Renders a table with the keys of every bundle and locale that became missing, extra, non-changed
+         * or mismatched since the baseline. Bundles and locales without such keys are left out.
+         */
+        private void renderDelta() {
+            paragraph(MessageFormat.format(
+                    bundle.getString("report.l10n.delta.intro"),
+                    DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.SHORT, rendererLocale)
+                            .format(new Date(baseline.getCreated()))));
+            startTable();
+            tableHeader(new String[] {
+                bundle.getString("report.l10n.tableheader1"),
+                bundle.getString("report.l10n.locale"),
+                bundle.getString("report.l10n.delta.missing"),
+                bundle.getString("report.l10n.delta.additional"),
+                bundle.getString("report.l10n.delta.nontranslated"),
+                bundle.getString("report.l10n.delta.mismatched")
+            });
+            boolean regressed = false;
+            for (BundleStatus status : statuses) {
+                for (String x : locales) {
+                    Baseline.Delta delta = baseline.compare(status, status.getDiff(x));
+                    if (delta.isEmpty()) {
+                        continue;
                     }
-                    endTable();
-                    endSection();
+                    regressed = true;
+                    sink.tableRow();
+                    tableCell(status.getPath());
+                    tableCell(x);
+                    keyListCell(delta.getMissing(), null);
+                    keyListCell(delta.getAdditional(), null);
+                    keyListCell(delta.getNonTranslated(), null);
+                    keyListCell(delta.getMismatched(), null);
+                    sink.tableRow_();
+                }
+            }
+            endTable();
+            if (!regressed) {
+                paragraph(bundle.getString("report.l10n.delta.none"));
+            }
+        }
+
+        /**
+         * Renders a section listing the keys of each default bundle that are not referenced in the sources.
+         */
+        protected void renderUnusedKeys() {
+            startSection(bundle.getString("report.l10n.unused"));
+            sink.anchor("unused");
+            sink.anchor_();
+            paragraph(MessageFormat.format(
+                    bundle.getString("report.l10n.unused.intro"),
+                    usage.getUnusedCount(),
+                    usage.getKeyCount(),
+                    usage.getSourceFileCount()));
+            startTable();
+            tableHeader(new String[] {
+                bundle.getString("report.l10n.tableheader1"), bundle.getString("report.l10n.unused.tableheader")
+            });
+            for (BundleStatus status : statuses) {
+                sink.tableRow();
+                tableCell(status.getPath());
+                keyListCell(usage.getUnused(status.getKeys()), null);
+                sink.tableRow_();
+            }
+            endTable();
+            endSection();
+        }
+
+        /**
+         * Renders a section listing, for every bundle and locale, the missing or non-changed keys whose default
+         * value is translated in another bundle, together with that translation.
+         *
+         * @throws UncheckedIOException if a localized file cannot be read
+         */
+        protected void renderReusableTranslations() {
+            startSection(bundle.getString("report.l10n.reuse"));
+            sink.anchor("reuse");
+            sink.anchor_();
+            paragraph(MessageFormat.format(bundle.getString("report.l10n.reuse.intro"), reuse.getTotalCount()));
+            startTable();
+            tableHeader(new String[] {
+                bundle.getString("report.l10n.tableheader1"),
+                bundle.getString("report.l10n.locale"),
+                bundle.getString("report.l10n.reuse.tableheader")
+            });
+            String fromLabel = bundle.getString("report.l10n.reuse.from");
+            for (BundleStatus status : statuses) {
+                for (String x : locales) {
+                    int count = reuse.getCount(status, x);
+                    if (count == 0) {
+                        continue;
+                    }
+                    List<TranslationReuse.Reuse> found;
+                    try {
+                        found = reuse.find(status, x);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    if (found.isEmpty()) {
+                        continue;
+                    }
+                    int listed = maxListedKeys > 0 ? Math.min(found.size(), maxListedKeys) : found.size();
+                    sink.tableRow();
+                    tableCell(status.getPath());
+                    tableCell(x);
+                    sink.tableCell();
+                    sink.list();
+                    for (TranslationReuse.Reuse r : found.subList(0, listed)) {
+                        sink.listItem();
+                        sink.text(r.getKey() + ": \"" + r.getTranslation() + "\" ");
+                        sink.italic();
+                        sink.text(MessageFormat.format(fromLabel, r.getSourcePath(), r.getSourceKey()));
+                        sink.italic_();
+                        sink.listItem_();
+                    }
+                    if (listed < found.size()) {
+                        sink.listItem();
+                        sink.italic();
+                        sink.text(MessageFormat.format(moreKeysLabel, found.size() - listed));
+                        sink.italic_();
+                        sink.listItem_();
+                    }
+                    sink.list_();
+                    sink.tableCell_();
+                    sink.tableRow_();
                 }
             }
+            endTable();
             endSection();
         }
 
+        protected static String getProjectName(MavenProject prj) {
+            String name = prj.getName();
+            if (name == null) {
+                name = prj.getGroupId() + ":" + prj.getArtifactId();
+            }
+            return name;
+        }
+
         /**
          * Take the supplied locale code, split into its different parts and create a Locale object from it.
          *
          * @param localeCode The code for a locale in the format language[_country[_variant]]
          * @return A suitable Locale object, ot <code>null</code> if the code was in an unknown format
          */
-        private Locale createLocale(String localeCode) {
+        private static Locale createLocale(String localeCode) {
             // Split the localeCode into language/country/variant
             String[] localeComponents = StringUtils.split(localeCode, "_");
             Locale locale = null;
@@ -499,6 +1189,37 @@ public class L10NStatusReport extends AbstractMavenReport {
             return locale;
         }
 
+        /**
+         * Renders a cell with a list of the given keys, and their default values if given, directly to the
+         * sink. At most <code>maxListedKeys</code> keys are listed, followed by the number of the others.
+         */
+        private void keyListCell(String[] keys, String[] values) {
+            sink.tableCell();
+            if (keys.length == 0) {
+                sink.text(okLabel);
+            } else {
+                int listed = maxListedKeys > 0 ? Math.min(keys.length, maxListedKeys) : keys.length;
+                sink.list();
+                for (int n = 0; n < listed; n++) {
+                    sink.listItem();
+                    sink.text(keys[n]);
+                    if (values != null) {
+                        sink.text(": \"" + values[n] + "\"");
+                    }
+                    sink.listItem_();
+                }
+                if (listed < keys.length) {
+                    sink.listItem();
+                    sink.italic();
+                    sink.text(MessageFormat.format(moreKeysLabel, keys.length - listed));
+                    sink.italic_();
+                    sink.listItem_();
+                }
+                sink.list_();
+            }
+            sink.tableCell_();
+        }
+
         private String wrapInTable(String okLabel, String cell) {
             if (cell.isEmpty()) {
                 cell = okLabel;
@@ -509,50 +1230,110 @@ public class L10NStatusReport extends AbstractMavenReport {
         }
     }
 
-    static class Wrapper {
+    /**
+     * Generates the page of a multi-page report with the status of one locale, for all bundles or for those
+     * of one project.
+     */
+    static class LocalePageRenderer extends L10NStatusRenderer {
 
-        private final String path;
+        private final String localeCode;
 
-        private final File file;
+        /**
+         * The project the bundles belong to, or <code>null</code> for the bundles of all projects.
+         */
+        private final MavenProject project;
+
+        LocalePageRenderer(
+                Sink sink,
+                L10NStatusRenderer summary,
+                Iterable<BundleStatus> statuses,
+                String localeCode,
+                MavenProject project) {
+            super(sink, summary, statuses);
+            this.localeCode = localeCode;
+            this.project = project;
+        }
 
-        private final MavenProject proj;
+        @Override
+        public String getTitle() {
+            String title = super.getTitle() + ": " + getLocaleTitle(localeCode);
+            return project != null ? title + " (" + getProjectName(project) + ")" : title;
+        }
+
+        @Override
+        public void renderBody() {
+            startSection(getTitle());
+            renderLocaleTable(localeCode);
+            endSection();
+        }
+    }
+
+    /**
+     * Generates the page of a multi-page report with the summary of the bundles of one project and links to
+     * the locale pages of the project.
+     */
+    static class ProjectPageRenderer extends L10NStatusRenderer {
 
-        private final Map<String, Properties> properties;
+        private final MavenProject project;
 
-        static final String DEFAULT_LOCALE = "Default";
+        ProjectPageRenderer(
+                Sink sink, L10NStatusRenderer summary, Iterable<BundleStatus> statuses, MavenProject project) {
+            super(sink, summary, statuses);
+            this.project = project;
+        }
 
-        public Wrapper(String p, File f, MavenProject prj) {
-            path = p;
-            file = f;
-            proj = prj;
-            properties = new HashMap<>();
+        @Override
+        public String getTitle() {
+            return super.getTitle() + ": " + getProjectName(project);
         }
 
-        public File getFile() {
-            return file;
+        @Override
+        public void renderBody() {
+            startSection(getTitle());
+            renderSummaryTable();
+            renderLegend();
+            renderLocaleLinks(project);
+            endSection();
         }
+    }
 
-        public String getPath() {
-            return path;
+    /**
+     * Generates the page of a multi-page report with the keys that are not referenced in the sources.
+     */
+    static class UnusedKeysPageRenderer extends L10NStatusRenderer {
+
+        UnusedKeysPageRenderer(Sink sink, L10NStatusRenderer summary) {
+            super(sink, summary, summary.statuses);
         }
 
-        public MavenProject getProject() {
-            return proj;
+        @Override
+        public String getTitle() {
+            return super.getTitle() + ": " + bundle.getString("report.l10n.unused");
         }
 
-        public Map<String, Properties> getProperties() {
-            return properties;
+        @Override
+        public void renderBody() {
+            renderUnusedKeys();
         }
     }
 
-    private static class WrapperComparator implements Comparator<Wrapper> {
+    /**
+     * Generates the page of a multi-page report with the translations that can be reused for other bundles.
+     */
+    static class ReusePageRenderer extends L10NStatusRenderer {
 
-        public int compare(Wrapper wr1, Wrapper wr2) {
-            int comp1 = wr1.getProject().getBasedir().compareTo(wr2.getProject().getBasedir());
-            if (comp1 != 0) {
-                return comp1;
-            }
-            return wr1.getFile().compareTo(wr2.getFile());
+        ReusePageRenderer(Sink sink, L10NStatusRenderer summary) {
+            super(sink, summary, summary.statuses);
+        }
+
+        @Override
+        public String getTitle() {
+            return super.getTitle() + ": " + bundle.getString("report.l10n.reuse");
+        }
+
+        @Override
+        public void renderBody() {
+            renderReusableTranslations();
         }
     }
 }
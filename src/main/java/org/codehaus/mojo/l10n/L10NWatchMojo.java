@@ -0,0 +1,344 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Keeps the l10n status of the resource bundles up to date while they are edited. The bundles are analysed
+ * once, then the resource directories are watched and only the bundles affected by a changed file are
+ * analysed again. After every change a summary is logged and written to a file.
+ *
+ * @since 1.2.1
+ */
+@Mojo(name = "watch", threadSafe = true)
+public class L10NWatchMojo extends AbstractMojo {
+
+    /**
+     * How long to wait for more changes before analysing, so that a save of several files is handled at once.
+     */
+    private static final long QUIET_PERIOD = 100;
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true, required = true)
+    private List<MavenProject> reactorProjects;
+
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true, required = true)
+    private MojoExecution mojoExecution;
+
+    /**
+     * A list of locale strings that are to be watched for l10n status.
+     *
+     * @since 1.2.1
+     */
+    @Parameter
+    private List<String> locales;
+
+    /**
+     * Whether to also watch every locale for which a localized bundle file is found, in addition to the
+     * configured <code>locales</code>.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.discoverLocales")
+    private boolean discoverLocales;
+
+    /**
+     * A list of exclude patterns to use. By default no files are excluded.
+     *
+     * @since 1.2.1
+     */
+    @Parameter
+    private List<String> excludes;
+
+    /**
+     * A list of include patterns to use. By default, all files of the configured <code>formats</code> are
+     * included.
+     *
+     * @since 1.2.1
+     */
+    @Parameter
+    private List<String> includes;
+
+    /**
+     * The formats of the bundle files: <code>properties</code>, <code>xml</code> for XML properties files,
+     * <code>json</code> for flat or nested JSON files and <code>po</code> for gettext catalogs with a
+     * <code>.pot</code> template. By default, only <code>.properties</code> files are analysed.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.formats")
+    private List<String> formats;
+
+    /**
+     * Whether to watch the resources of all projects in the reactor, or only those of the current project.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "false", property = "maven.l10n.aggregate")
+    private boolean aggregate;
+
+    /**
+     * The number of threads used for the first analysis. Defaults to the number of available processors.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(property = "maven.l10n.threads")
+    private int threads;
+
+    /**
+     * The file the summary is written to after every change, as JSON.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "${project.build.directory}/l10n-status.json", property = "maven.l10n.summaryFile")
+    private File summaryFile;
+
+    /**
+     * The number of seconds to watch for. By default, the goal watches until it is interrupted.
+     *
+     * @since 1.2.1
+     */
+    @Parameter(defaultValue = "0", property = "maven.l10n.watchTimeout")
+    private int watchTimeout;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (aggregate && !project.isExecutionRoot()) {
+            return;
+        }
+        Map<MavenProject, List<Resource>> resources = new HashMap<>();
+        for (MavenProject prj : aggregate ? reactorProjects : Collections.singletonList(project)) {
+            if (prj.getResources() != null && !prj.getResources().isEmpty()) {
+                resources.put(prj, prj.getResources());
+            }
+        }
+        if (resources.isEmpty()) {
+            getLog().info("No resources to watch");
+            return;
+        }
+
+        BundleFormats bundleFormats;
+        try {
+            bundleFormats = BundleFormats.of(formats);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        StatusCache cache = StatusCache.load(
+                null,
+                StatusCache.signature(
+                        mojoExecution.getMojoDescriptor().getPluginDescriptor().getVersion(),
+                        includes,
+                        excludes,
+                        bundleFormats),
+                getLog());
+        BundleAnalyzer analyzer =
+                new BundleAnalyzer(locales, discoverLocales, includes, excludes, bundleFormats, cache, false, getLog());
+        int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        long deadline =
+                System.nanoTime() + (watchTimeout > 0 ? TimeUnit.SECONDS.toNanos(watchTimeout) : Long.MAX_VALUE / 2);
+
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            long start = System.nanoTime();
+            List<BundleStatus> statuses = analyzer.analyse(resources, threadCount);
+            Map<Path, WatchKey> watched = new HashMap<>();
+            register(watcher, analyzer.getDirectories(), watched);
+            report(statuses, analyzer.getLocales(), statuses, start);
+            getLog().info("Watching " + watched.size() + " directories for changes, press Ctrl+C to stop");
+
+            while (true) {
+                Map<Path, Set<String>> changed = new TreeMap<>();
+                boolean full = !collect(watcher, deadline, watched, bundleFormats, changed);
+                if (changed.isEmpty() && !full) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        return;
+                    }
+                    continue;
+                }
+                start = System.nanoTime();
+                List<BundleStatus> updated = new ArrayList<>();
+                for (Map.Entry<Path, Set<String>> entry : changed.entrySet()) {
+                    List<BundleStatus> changedStatuses =
+                            full ? null : analyzer.update(statuses, entry.getKey(), entry.getValue());
+                    if (changedStatuses == null) {
+                        full = true;
+                        break;
+                    }
+                    updated.addAll(changedStatuses);
+                }
+                if (full) {
+                    statuses = analyzer.analyse(resources, threadCount);
+                    register(watcher, analyzer.getDirectories(), watched);
+                    updated = statuses;
+                }
+                report(statuses, analyzer.getLocales(), updated, start);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Waits for changes and collects the names of the changed bundle files by directory, until no more changes
+     * occur for a short while.
+     *
+     * @param watched the watched directories
+     * @param bundleFormats the formats of the bundle files
+     * @return <code>false</code> if changes may have been lost, or directories were added or removed, so that
+     *         everything needs to be analysed again
+     */
+    private boolean collect(
+            WatchService watcher,
+            long deadline,
+            Map<Path, WatchKey> watched,
+            BundleFormats bundleFormats,
+            Map<Path, Set<String>> changed)
+            throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        WatchKey key = remaining > 0 ? watcher.poll(remaining, TimeUnit.NANOSECONDS) : null;
+        boolean complete = true;
+        while (key != null) {
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    complete = false;
+                    continue;
+                }
+                Path path = dir.resolve((Path) event.context());
+                if (Files.isDirectory(path) || watched.containsKey(path)) {
+                    complete = false;
+                } else if (bundleFormats.forFile(path.getFileName().toString()) != null) {
+                    changed.computeIfAbsent(dir, d -> new TreeSet<>())
+                            .add(path.getFileName().toString());
+                }
+            }
+            key.reset();
+            key = watcher.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS);
+        }
+        return complete;
+    }
+
+    /**
+     * Watches the scanned directories that are not watched yet, and stops watching those no longer scanned.
+     *
+     * @param watched the watch keys by directory, updated
+     */
+    private static void register(WatchService watcher, Set<Path> directories, Map<Path, WatchKey> watched)
+            throws IOException {
+        for (Iterator<Map.Entry<Path, WatchKey>> it = watched.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Path, WatchKey> entry = it.next();
+            if (!directories.contains(entry.getKey())) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+        for (Path dir : directories) {
+            if (!watched.containsKey(dir)) {
+                watched.put(
+                        dir,
+                        dir.register(
+                                watcher,
+                                StandardWatchEventKinds.ENTRY_CREATE,
+                                StandardWatchEventKinds.ENTRY_MODIFY,
+                                StandardWatchEventKinds.ENTRY_DELETE));
+            }
+        }
+    }
+
+    /**
+     * Logs the totals and the changed bundles, and writes the summary file.
+     */
+    private void report(List<BundleStatus> statuses, List<String> locales, List<BundleStatus> updated, long start)
+            throws IOException {
+        StatusSummary summary =
+                new StatusSummary(project.getGroupId() + ":" + project.getArtifactId(), statuses, locales);
+        if (updated != statuses) {
+            for (BundleStatus status : updated) {
+                StringBuilder line = new StringBuilder(status.getPath()).append(':');
+                for (LocaleDiff diff : status.getDiffs()) {
+                    line.append(' ')
+                            .append(diff.getLocale())
+                            .append(" (M ")
+                            .append(diff.getMissingCount())
+                            .append(", E ")
+                            .append(diff.getAdditionalCount())
+                            .append(", NT ")
+                            .append(diff.getNonTranslatedCount())
+                            .append(", P ")
+                            .append(diff.getMismatchedCount())
+                            .append(", I ")
+                            .append(diff.getInheritedCount())
+                            .append(')');
+                }
+                getLog().info(line.toString());
+            }
+        }
+        for (StatusSummary.LocaleTotals totals : summary.getTotals()) {
+            getLog().info(String.format(
+                    Locale.ROOT,
+                    "%s: %.1f%% translated, %d missing, %d extra, %d non-translated, %d placeholder mismatches",
+                    totals.getLocale(),
+                    totals.getCoverage(),
+                    totals.getMissing(),
+                    totals.getAdditional(),
+                    totals.getNonTranslated(),
+                    totals.getMismatched()));
+        }
+
+        Files.createDirectories(summaryFile.getParentFile().toPath());
+        try (Writer out = Files.newBufferedWriter(summaryFile.toPath(), StandardCharsets.UTF_8)) {
+            summary.writeJson(out);
+        }
+        getLog().info("L10n status updated in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+}
@@ -0,0 +1,356 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * The result of comparing one localized bundle file with its default bundle. The localized key set is held
+ * as bit sets over the sorted default keys, so counts are plain popcounts and key lists come out sorted.
+ * <p>
+ * Keys that are not defined for the locale itself, but for one of its parent locales, are inherited as
+ * {@link java.util.ResourceBundle} would at runtime, e.g. <code>de_CH</code> inherits from <code>de</code>.
+ * Inherited keys are neither missing nor counted as translated unless the parent translates them.
+ *
+ * @since 1.2.1
+ */
+class LocaleDiff {
+
+    private static final String[] NONE = {};
+
+    private final String locale;
+
+    private final String[] keys;
+
+    private final boolean present;
+
+    private final BitSet defined;
+
+    private final BitSet unchanged;
+
+    private final String[] additional;
+
+    private final String[] nonTranslatedValues;
+
+    private final BitSet mismatched;
+
+    private final String[] mismatchedValues;
+
+    private final BitSet inherited;
+
+    private final BitSet inheritedTranslated;
+
+    /**
+     * @param locale the locale
+     * @param keys the sorted keys of the default bundle
+     * @param present whether a file exists for this locale
+     * @param defined the indexes of the default keys that are defined for this locale
+     * @param unchanged the indexes of the default keys with the same value as in the default bundle
+     * @param additional the sorted keys defined for this locale that are not in the default bundle
+     * @param nonTranslatedValues the default values of the unchanged keys, in index order
+     * @param mismatched the indexes of the translated keys whose placeholders differ from the default value
+     * @param mismatchedValues the localized values of the mismatched keys, in index order
+     */
+    LocaleDiff(
+            String locale,
+            String[] keys,
+            boolean present,
+            BitSet defined,
+            BitSet unchanged,
+            String[] additional,
+            String[] nonTranslatedValues,
+            BitSet mismatched,
+            String[] mismatchedValues) {
+        this(
+                locale,
+                keys,
+                present,
+                defined,
+                unchanged,
+                additional,
+                nonTranslatedValues,
+                mismatched,
+                mismatchedValues,
+                new BitSet(),
+                new BitSet());
+    }
+
+    private LocaleDiff(
+            String locale,
+            String[] keys,
+            boolean present,
+            BitSet defined,
+            BitSet unchanged,
+            String[] additional,
+            String[] nonTranslatedValues,
+            BitSet mismatched,
+            String[] mismatchedValues,
+            BitSet inherited,
+            BitSet inheritedTranslated) {
+        this.locale = locale;
+        this.keys = keys;
+        this.present = present;
+        this.defined = defined;
+        this.unchanged = unchanged;
+        this.additional = additional;
+        this.nonTranslatedValues = nonTranslatedValues;
+        this.mismatched = mismatched;
+        this.mismatchedValues = mismatchedValues;
+        this.inherited = inherited;
+        this.inheritedTranslated = inheritedTranslated;
+    }
+
+    /**
+     * The diff for a locale that has no file at all: every default key is missing.
+     */
+    static LocaleDiff missingFile(String locale, String[] keys) {
+        return new LocaleDiff(locale, keys, false, new BitSet(), new BitSet(), NONE, NONE, new BitSet(), NONE);
+    }
+
+    /**
+     * Resolves the keys this locale does not define along the parent chain.
+     *
+     * @param parent the resolved diff of the parent locale, computed against the same default bundle
+     * @return a copy of this diff that inherits the keys defined by the parent or its own parents
+     */
+    LocaleDiff inherit(LocaleDiff parent) {
+        BitSet resolved = (BitSet) parent.defined.clone();
+        resolved.or(parent.inherited);
+        resolved.andNot(defined);
+        BitSet translated = (BitSet) parent.defined.clone();
+        translated.andNot(parent.unchanged);
+        translated.or(parent.inheritedTranslated);
+        translated.andNot(defined);
+        return new LocaleDiff(
+                locale,
+                keys,
+                present,
+                defined,
+                unchanged,
+                additional,
+                nonTranslatedValues,
+                mismatched,
+                mismatchedValues,
+                resolved,
+                translated);
+    }
+
+    String getLocale() {
+        return locale;
+    }
+
+    /**
+     * @return whether a file exists for this locale
+     */
+    boolean isPresent() {
+        return present;
+    }
+
+    /**
+     * @return the number of default keys that are neither defined for this locale nor inherited
+     */
+    int getMissingCount() {
+        return keys.length - defined.cardinality() - inherited.cardinality();
+    }
+
+    int getAdditionalCount() {
+        return additional.length;
+    }
+
+    int getNonTranslatedCount() {
+        return unchanged.cardinality();
+    }
+
+    /**
+     * @return the number of default keys that are translated for this locale, or inherited from a parent
+     *         locale that translates them
+     */
+    int getTranslatedCount() {
+        return defined.cardinality() - unchanged.cardinality() + inheritedTranslated.cardinality();
+    }
+
+    /**
+     * @return the number of default keys that are inherited from a parent locale
+     */
+    int getInheritedCount() {
+        return inherited.cardinality();
+    }
+
+    /**
+     * @return the keys of the default bundle that are neither defined for this locale nor inherited
+     */
+    String[] getMissing() {
+        BitSet resolved = (BitSet) defined.clone();
+        resolved.or(inherited);
+        String[] missing = new String[getMissingCount()];
+        int n = 0;
+        for (int i = resolved.nextClearBit(0); i < keys.length; i = resolved.nextClearBit(i + 1)) {
+            missing[n++] = keys[i];
+        }
+        return missing;
+    }
+
+    /**
+     * @return the keys of the default bundle that are inherited from a parent locale
+     */
+    String[] getInherited() {
+        String[] result = new String[getInheritedCount()];
+        int n = 0;
+        for (int i = inherited.nextSetBit(0); i >= 0; i = inherited.nextSetBit(i + 1)) {
+            result[n++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * @return the indexes of the default keys that are translated in the file of this locale itself
+     */
+    BitSet getTranslatedIndexes() {
+        BitSet translated = (BitSet) defined.clone();
+        translated.andNot(unchanged);
+        return translated;
+    }
+
+    /**
+     * @return the indexes of the default keys that are missing or not translated for this locale
+     */
+    BitSet getUntranslatedIndexes() {
+        BitSet untranslated = (BitSet) defined.clone();
+        untranslated.or(inherited);
+        untranslated.flip(0, keys.length);
+        untranslated.or(unchanged);
+        return untranslated;
+    }
+
+    /**
+     * @return the keys defined for this locale that are not in the default bundle
+     */
+    String[] getAdditional() {
+        return additional;
+    }
+
+    /**
+     * @return the keys that have the same value as in the default bundle
+     */
+    String[] getNonTranslated() {
+        String[] nonTranslated = new String[getNonTranslatedCount()];
+        int n = 0;
+        for (int i = unchanged.nextSetBit(0); i >= 0; i = unchanged.nextSetBit(i + 1)) {
+            nonTranslated[n++] = keys[i];
+        }
+        return nonTranslated;
+    }
+
+    /**
+     * @return the default values of the non-translated keys, in the same order
+     */
+    String[] getNonTranslatedValues() {
+        return nonTranslatedValues;
+    }
+
+    /**
+     * @return the number of translated keys whose placeholders differ from those of the default value
+     */
+    int getMismatchedCount() {
+        return mismatched.cardinality();
+    }
+
+    /**
+     * @return the translated keys whose placeholders differ from those of the default value
+     */
+    String[] getMismatched() {
+        String[] result = new String[getMismatchedCount()];
+        int n = 0;
+        for (int i = mismatched.nextSetBit(0); i >= 0; i = mismatched.nextSetBit(i + 1)) {
+            result[n++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * @return the localized values of the mismatched keys, in the same order
+     */
+    String[] getMismatchedValues() {
+        return mismatchedValues;
+    }
+
+    /**
+     * Reads a diff written by {@link #write(DataOutputStream)}.
+     *
+     * @param keys the sorted keys of the default bundle the diff was computed against
+     */
+    static LocaleDiff read(DataInputStream in, String[] keys) throws IOException {
+        String locale = StatusCache.readString(in);
+        boolean present = in.readBoolean();
+        BitSet defined = readBits(in);
+        BitSet unchanged = readBits(in);
+        String[] additional = StatusCache.readStrings(in);
+        String[] nonTranslatedValues = StatusCache.readStrings(in);
+        BitSet mismatched = readBits(in);
+        String[] mismatchedValues = StatusCache.readStrings(in);
+        return new LocaleDiff(
+                locale,
+                keys,
+                present,
+                defined,
+                unchanged,
+                additional,
+                nonTranslatedValues,
+                mismatched,
+                mismatchedValues,
+                readBits(in),
+                readBits(in));
+    }
+
+    /**
+     * Writes this diff without the default keys, which are stored with the default bundle.
+     */
+    void write(DataOutputStream out) throws IOException {
+        StatusCache.writeString(out, locale);
+        out.writeBoolean(present);
+        writeBits(out, defined);
+        writeBits(out, unchanged);
+        StatusCache.writeStrings(out, additional);
+        StatusCache.writeStrings(out, nonTranslatedValues);
+        writeBits(out, mismatched);
+        StatusCache.writeStrings(out, mismatchedValues);
+        writeBits(out, inherited);
+        writeBits(out, inheritedTranslated);
+    }
+
+    private static BitSet readBits(DataInputStream in) throws IOException {
+        long[] words = new long[in.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static void writeBits(DataOutputStream out, BitSet bits) throws IOException {
+        long[] words = bits.toLongArray();
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+}
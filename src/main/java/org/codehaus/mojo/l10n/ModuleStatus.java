@@ -0,0 +1,241 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * The analysed status of all bundles of one module, stored in the module's build directory. An aggregate
+ * report merges these instead of analysing every module again. A stored status is only used while the
+ * bundle files and every directory the scan entered are unchanged, which is validated by their size and
+ * modification time alone. A bundle added anywhere in the scanned trees changes the modification time of
+ * the directory it is added to.
+ * <p>
+ * The status is written whenever a module is analysed, i.e. by the <code>check</code> goal, a
+ * non-aggregated report and an aggregated report of the module's reactor. A module does not write its own
+ * status while an aggregated report is generated, because the report is only generated at the execution root.
+ *
+ * @since 1.2.1
+ */
+class ModuleStatus {
+
+    static final String FILE_NAME = "l10n-status.bin";
+
+    private static final int MAGIC = 0x4c31304d;
+
+    private static final int FORMAT_VERSION = 6;
+
+    private final List<String> locales;
+
+    private final List<BundleStatus> statuses;
+
+    private final Map<File, Map<String, File>> localizedFiles;
+
+    private ModuleStatus(
+            List<String> locales, List<BundleStatus> statuses, Map<File, Map<String, File>> localizedFiles) {
+        this.locales = locales;
+        this.statuses = statuses;
+        this.localizedFiles = localizedFiles;
+    }
+
+    /**
+     * @return the analysed locales, including those discovered in this module
+     */
+    List<String> getLocales() {
+        return locales;
+    }
+
+    List<BundleStatus> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * @return the localized siblings of each default bundle by locale
+     */
+    Map<File, Map<String, File>> getLocalizedFiles() {
+        return localizedFiles;
+    }
+
+    /**
+     * @return the file holding the status of the given module
+     */
+    static File getFile(MavenProject project) {
+        return new File(project.getBuild().getDirectory(), FILE_NAME);
+    }
+
+    /**
+     * Reads the stored status of a module.
+     *
+     * @param signature the plugin version and configuration the status must have been computed with
+     * @return the status, or <code>null</code> if there is none, or it is unreadable or out of date
+     */
+    static ModuleStatus read(MavenProject project, List<Resource> resources, String signature) {
+        File file = getFile(project);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC
+                    || in.readInt() != FORMAT_VERSION
+                    || !signature.equals(StatusCache.readString(in))
+                    || !resourceKey(resources).equals(StatusCache.readString(in))) {
+                return null;
+            }
+            List<String> locales = Arrays.asList(StatusCache.readStrings(in));
+            int dirCount = in.readInt();
+            for (int i = 0; i < dirCount; i++) {
+                if (new File(StatusCache.readString(in)).lastModified() != in.readLong()) {
+                    return null;
+                }
+            }
+            int fileCount = in.readInt();
+            for (int i = 0; i < fileCount; i++) {
+                File source = new File(StatusCache.readString(in));
+                if (source.length() != in.readLong() || source.lastModified() != in.readLong()) {
+                    return null;
+                }
+            }
+            int bundleCount = in.readInt();
+            List<BundleStatus> statuses = new ArrayList<>(bundleCount);
+            Map<File, Map<String, File>> localizedFiles = new HashMap<>();
+            for (int i = 0; i < bundleCount; i++) {
+                BundleStatus status = BundleStatus.read(in, project);
+                statuses.add(status);
+                int siblingCount = in.readInt();
+                Map<String, File> siblings = new HashMap<>();
+                for (int j = 0; j < siblingCount; j++) {
+                    siblings.put(StatusCache.readString(in), new File(StatusCache.readString(in)));
+                }
+                localizedFiles.put(status.getFile(), siblings);
+            }
+            return new ModuleStatus(locales, statuses, localizedFiles);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the status of a module.
+     *
+     * @param signature the plugin version and configuration the status was computed with
+     * @param locales the analysed locales of this module, only the diffs of these are stored
+     * @param statuses the status of every default bundle of the module
+     * @param localizedFiles the localized siblings of each default bundle by locale
+     * @param scannedDirectories the real paths of all directories the scan entered, of any module
+     */
+    static void write(
+            MavenProject project,
+            List<Resource> resources,
+            String signature,
+            List<String> locales,
+            List<BundleStatus> statuses,
+            Map<File, Map<String, File>> localizedFiles,
+            Collection<Path> scannedDirectories)
+            throws IOException {
+        Set<File> directories = new TreeSet<>();
+        Set<File> files = new TreeSet<>();
+        List<Path> roots = new ArrayList<>();
+        for (Resource resource : resources) {
+            File directory = new File(resource.getDirectory());
+            directories.add(directory);
+            if (directory.isDirectory()) {
+                roots.add(directory.toPath().toRealPath());
+            }
+        }
+        for (Path dir : scannedDirectories) {
+            for (Path root : roots) {
+                if (dir.startsWith(root)) {
+                    directories.add(dir.toFile());
+                    break;
+                }
+            }
+        }
+        for (BundleStatus status : statuses) {
+            directories.add(status.getFile().getParentFile());
+            files.add(status.getFile());
+            Map<String, File> siblings = localizedFiles.get(status.getFile());
+            if (siblings != null) {
+                files.addAll(siblings.values());
+            }
+        }
+
+        StatusCache.write(getFile(project), out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            StatusCache.writeString(out, signature);
+            StatusCache.writeString(out, resourceKey(resources));
+            StatusCache.writeStrings(out, locales.toArray(new String[0]));
+            out.writeInt(directories.size());
+            for (File directory : directories) {
+                StatusCache.writeString(out, directory.getAbsolutePath());
+                out.writeLong(directory.lastModified());
+            }
+            out.writeInt(files.size());
+            for (File source : files) {
+                StatusCache.writeString(out, source.getAbsolutePath());
+                out.writeLong(source.length());
+                out.writeLong(source.lastModified());
+            }
+            out.writeInt(statuses.size());
+            for (BundleStatus status : statuses) {
+                status.write(out, locales);
+                Map<String, File> siblings = localizedFiles.getOrDefault(status.getFile(), Collections.emptyMap());
+                out.writeInt(siblings.size());
+                for (Map.Entry<String, File> sibling : siblings.entrySet()) {
+                    StatusCache.writeString(out, sibling.getKey());
+                    StatusCache.writeString(out, sibling.getValue().getAbsolutePath());
+                }
+            }
+        });
+    }
+
+    /**
+     * @return a description of the resource directories and their patterns, which a stored status depends on
+     */
+    private static String resourceKey(List<Resource> resources) {
+        StringBuilder sb = new StringBuilder();
+        for (Resource resource : resources) {
+            sb.append(new File(resource.getDirectory()).getAbsolutePath())
+                    .append('|')
+                    .append(resource.getIncludes())
+                    .append('|')
+                    .append(resource.getExcludes())
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,198 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+
+/**
+ * Computes the placeholder signature of a {@link java.text.MessageFormat} pattern in one pass over its
+ * characters, without creating a <code>MessageFormat</code>. The signature is the set of the argument
+ * indexes together with their format types, so a translation with the same signature uses the same
+ * arguments in the same way, in any order. Quoting follows the rules of <code>MessageFormat</code>, so a
+ * placeholder that is quoted by an unbalanced apostrophe does not count.
+ *
+ * @since 1.2.1
+ */
+final class Placeholders {
+
+    /**
+     * The signature of a value without placeholders.
+     */
+    static final long NONE = 0L;
+
+    /**
+     * The signature of a value that is not a valid pattern, e.g. because of an unmatched brace.
+     */
+    static final long INVALID = -1L;
+
+    private static final String[] TYPES = {"number", "date", "time", "choice"};
+
+    /**
+     * Argument codes are <code>index * 8 + type</code>. Codes below 64 are bits of the signature itself,
+     * and types 5 to 7 are never used, so this bit marks a signature that is a hash of larger codes.
+     */
+    private static final long HASHED = 1L << 7;
+
+    private static final int MAX_INDEX = 0xffff;
+
+    private Placeholders() {}
+
+    /**
+     * @return the placeholder signature of the pattern, {@link #NONE} or {@link #INVALID}
+     */
+    static long of(CharSequence pattern) {
+        long mask = NONE;
+        int[] large = null;
+        int largeCount = 0;
+        boolean quoted = false;
+        int length = pattern.length();
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == '{' && !quoted) {
+                // An argument: index[,type[,style]], where the style may hold braces and quotes of its own
+                int part = 1;
+                int indexEnd = -1;
+                int typeStart = -1;
+                int typeEnd = -1;
+                int depth = 0;
+                boolean argQuoted = false;
+                int end = -1;
+                for (int j = i + 1; j < length && end < 0; j++) {
+                    char d = pattern.charAt(j);
+                    if (argQuoted) {
+                        argQuoted = d != '\'';
+                    } else if (d == '\'') {
+                        argQuoted = true;
+                    } else if (d == ',' && part == 1) {
+                        indexEnd = j;
+                        typeStart = j + 1;
+                        part = 2;
+                    } else if (d == ',' && part == 2) {
+                        typeEnd = j;
+                        part = 3;
+                    } else if (d == '{') {
+                        depth++;
+                    } else if (d == '}') {
+                        if (depth == 0) {
+                            end = j;
+                        } else {
+                            depth--;
+                        }
+                    }
+                }
+                if (end < 0) {
+                    return INVALID;
+                }
+                if (part == 1) {
+                    indexEnd = end;
+                } else if (part == 2) {
+                    typeEnd = end;
+                }
+                int index = parseIndex(pattern, i + 1, indexEnd);
+                int type = part == 1 ? 0 : parseType(pattern, typeStart, typeEnd);
+                if (index < 0 || type < 0) {
+                    return INVALID;
+                }
+                int code = index * 8 + type;
+                if (code < 64) {
+                    mask |= 1L << code;
+                } else {
+                    if (large == null) {
+                        large = new int[4];
+                    } else if (largeCount == large.length) {
+                        large = Arrays.copyOf(large, largeCount * 2);
+                    }
+                    large[largeCount++] = code;
+                }
+                i = end;
+            }
+        }
+        if (large == null) {
+            return mask;
+        }
+
+        Arrays.sort(large, 0, largeCount);
+        long h = mask;
+        int previous = -1;
+        for (int k = 0; k < largeCount; k++) {
+            if (large[k] != previous) {
+                h = (h ^ large[k]) * 0x100000001b3L;
+                previous = large[k];
+            }
+        }
+        h |= HASHED;
+        return h == INVALID ? HASHED : h;
+    }
+
+    /**
+     * @return the argument index in the given range, or -1 if it is not a plain number
+     */
+    private static int parseIndex(CharSequence pattern, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            char c = pattern.charAt(i);
+            if (c < '0' || c > '9' || index > MAX_INDEX) {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    /**
+     * @return 0 for an empty type, 1 to 4 for the format types, or -1 for an unknown type
+     */
+    private static int parseType(CharSequence pattern, int start, int end) {
+        while (start < end && Character.isWhitespace(pattern.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(pattern.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return 0;
+        }
+        for (int t = 0; t < TYPES.length; t++) {
+            String type = TYPES[t];
+            if (type.length() == end - start && regionMatches(pattern, start, type)) {
+                return t + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence pattern, int start, String type) {
+        for (int i = 0; i < type.length(); i++) {
+            if (Character.toLowerCase(pattern.charAt(start + i)) != type.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
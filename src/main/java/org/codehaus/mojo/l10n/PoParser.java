@@ -0,0 +1,309 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the messages of a gettext catalog or template one at a time. The key of a message is its
+ * <code>msgid</code>, preceded by its <code>msgctxt</code> and the character <code>U+0004</code> if it has a
+ * context, as in the compiled catalogs. The value is the <code>msgstr</code>, with the plural forms joined by
+ * line breaks. Like gettext does at runtime, messages that are untranslated or fuzzy have their source text as
+ * the value, so that they are found to be non-translated rather than missing. The header entry is left out.
+ * The file is read in a single pass, holding only the current message.
+ *
+ * @since 1.2.1
+ */
+final class PoParser {
+
+    private final char[] data;
+
+    private int pos;
+
+    private int lineNumber;
+
+    private int lineStart;
+
+    private int lineEnd;
+
+    private final StringBuilder msgctxt = new StringBuilder();
+
+    private boolean hasContext;
+
+    private final StringBuilder msgid = new StringBuilder();
+
+    private boolean hasId;
+
+    private final StringBuilder msgidPlural = new StringBuilder();
+
+    private boolean plural;
+
+    /**
+     * The translations of the current message, of which the first {@link #forms} are used.
+     */
+    private final List<StringBuilder> msgstr = new ArrayList<>();
+
+    private int forms;
+
+    private boolean fuzzy;
+
+    /**
+     * The field that continuation lines are appended to.
+     */
+    private StringBuilder current;
+
+    private final StringBuilder value = new StringBuilder();
+
+    private PoParser(char[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Parses the contents of a file, which are read as UTF-8 unless they are not valid UTF-8.
+     *
+     * @return <code>true</code>, as every file is a catalog
+     * @throws IOException if the file is malformed
+     */
+    static boolean parse(byte[] content, BundleFormat.Handler handler) throws IOException {
+        new PoParser(PropertiesParser.decode(content)).parse(handler);
+        return true;
+    }
+
+    private void parse(BundleFormat.Handler handler) throws IOException {
+        while (readLine()) {
+            if (lineStart == lineEnd) {
+                continue;
+            }
+            char c = data[lineStart];
+            if (c == '#') {
+                if (forms > 0) {
+                    flush(handler);
+                }
+                if (lineStart + 1 < lineEnd && data[lineStart + 1] == ',' && contains("fuzzy")) {
+                    fuzzy = true;
+                }
+                current = null;
+                continue;
+            }
+            if (c == '"') {
+                if (current == null) {
+                    throw error("Unexpected string");
+                }
+                appendString(lineStart, current);
+                continue;
+            }
+            int keywordEnd = lineStart;
+            while (keywordEnd < lineEnd && data[keywordEnd] != '"' && !Character.isWhitespace(data[keywordEnd])) {
+                keywordEnd++;
+            }
+            String keyword = new String(data, lineStart, keywordEnd - lineStart);
+            if ("msgctxt".equals(keyword) || "msgid".equals(keyword)) {
+                if (forms > 0) {
+                    flush(handler);
+                }
+                if ("msgctxt".equals(keyword)) {
+                    hasContext = true;
+                    current = msgctxt;
+                } else {
+                    hasId = true;
+                    current = msgid;
+                }
+            } else if ("msgid_plural".equals(keyword)) {
+                plural = true;
+                current = msgidPlural;
+            } else if ("msgstr".equals(keyword)) {
+                current = form(0);
+            } else if (keyword.startsWith("msgstr[") && keyword.endsWith("]")) {
+                try {
+                    current = form(Integer.parseInt(keyword.substring("msgstr[".length(), keyword.length() - 1)));
+                } catch (NumberFormatException ex) {
+                    throw error("Malformed plural form " + keyword);
+                }
+            } else {
+                throw error("Unknown keyword " + keyword);
+            }
+            appendString(keywordEnd, current);
+        }
+        if (forms > 0) {
+            flush(handler);
+        }
+    }
+
+    /**
+     * Passes the current message to the handler, unless it is the header, and starts a new one.
+     */
+    private void flush(BundleFormat.Handler handler) {
+        if (hasId && (hasContext || msgid.length() > 0)) {
+            boolean translated = !fuzzy;
+            for (int i = 0; i < forms; i++) {
+                translated &= msgstr.get(i).length() > 0;
+            }
+            value.setLength(0);
+            if (translated) {
+                for (int i = 0; i < forms; i++) {
+                    if (i > 0) {
+                        value.append('\n');
+                    }
+                    value.append(msgstr.get(i));
+                }
+            } else {
+                value.append(msgid);
+                if (plural) {
+                    value.append('\n').append(msgidPlural);
+                }
+            }
+            handler.property(hasContext ? msgctxt + "\u0004" + msgid : msgid.toString(), value);
+        }
+        msgctxt.setLength(0);
+        hasContext = false;
+        msgid.setLength(0);
+        hasId = false;
+        msgidPlural.setLength(0);
+        plural = false;
+        for (int i = 0; i < forms; i++) {
+            msgstr.get(i).setLength(0);
+        }
+        forms = 0;
+        fuzzy = false;
+        current = null;
+    }
+
+    /**
+     * @return the buffer of a plural form of the current message
+     */
+    private StringBuilder form(int index) throws IOException {
+        if (index < 0 || index > 255) {
+            throw error("Malformed plural form " + index);
+        }
+        while (msgstr.size() <= index) {
+            msgstr.add(new StringBuilder());
+        }
+        forms = Math.max(forms, index + 1);
+        return msgstr.get(index);
+    }
+
+    /**
+     * Finds the next line, without leading and trailing whitespace.
+     *
+     * @return <code>false</code> at the end of the file
+     */
+    private boolean readLine() {
+        if (pos >= data.length) {
+            return false;
+        }
+        lineNumber++;
+        lineStart = pos;
+        while (pos < data.length && data[pos] != '\n') {
+            pos++;
+        }
+        lineEnd = pos;
+        if (pos < data.length) {
+            pos++;
+        }
+        while (lineStart < lineEnd && Character.isWhitespace(data[lineStart])) {
+            lineStart++;
+        }
+        while (lineEnd > lineStart && Character.isWhitespace(data[lineEnd - 1])) {
+            lineEnd--;
+        }
+        return true;
+    }
+
+    private boolean contains(String word) {
+        return new String(data, lineStart, lineEnd - lineStart).contains(word);
+    }
+
+    /**
+     * Appends the quoted string that starts at or after the offset and ends the line to a field, with its
+     * escapes resolved.
+     */
+    private void appendString(int from, StringBuilder target) throws IOException {
+        int i = from;
+        while (i < lineEnd && Character.isWhitespace(data[i])) {
+            i++;
+        }
+        if (i == lineEnd || data[i] != '"' || lineEnd - i < 2 || data[lineEnd - 1] != '"') {
+            throw error("Expected a quoted string");
+        }
+        int end = lineEnd - 1;
+        i++;
+        while (i < end) {
+            char c = data[i++];
+            if (c != '\\') {
+                target.append(c);
+                continue;
+            }
+            if (i == end) {
+                throw error("Unterminated string");
+            }
+            c = data[i++];
+            switch (c) {
+                case 'n':
+                    target.append('\n');
+                    break;
+                case 't':
+                    target.append('\t');
+                    break;
+                case 'r':
+                    target.append('\r');
+                    break;
+                case 'a':
+                    target.append('\u0007');
+                    break;
+                case 'b':
+                    target.append('\b');
+                    break;
+                case 'f':
+                    target.append('\f');
+                    break;
+                case 'v':
+                    target.append('\u000b');
+                    break;
+                case 'x':
+                    int hex = 0;
+                    int hexStart = i;
+                    while (i < end && i - hexStart < 2 && Character.digit(data[i], 16) >= 0) {
+                        hex = (hex << 4) | Character.digit(data[i++], 16);
+                    }
+                    if (i == hexStart) {
+                        throw error("Malformed \\x escape");
+                    }
+                    target.append((char) hex);
+                    break;
+                default:
+                    if (c >= '0' && c <= '7') {
+                        int octal = c - '0';
+                        for (int n = 1; n < 3 && i < end && data[i] >= '0' && data[i] <= '7'; n++) {
+                            octal = (octal << 3) | (data[i++] - '0');
+                        }
+                        target.append((char) octal);
+                    } else {
+                        target.append(c);
+                    }
+            }
+        }
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at line " + lineNumber);
+    }
+}
@@ -0,0 +1,294 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the entries of a <code>.properties</code> file one at a time, following the format of
+ * {@link java.util.Properties#load(java.io.Reader)}: comments, line continuations, escapes and
+ * <code>\\uXXXX</code> sequences. Like {@link java.util.PropertyResourceBundle}, the file is read as UTF-8
+ * unless it is not valid UTF-8, in which case it is read as ISO-8859-1. Values are passed to the handler in
+ * a reused buffer, so that they do not need to be kept unless the handler asks for them.
+ *
+ * @since 1.2.1
+ */
+final class PropertiesParser {
+
+    private final char[] data;
+
+    private int pos;
+
+    /**
+     * The current logical line, with escapes still in place.
+     */
+    private char[] line = new char[256];
+
+    private int lineLength;
+
+    private final Chars value = new Chars();
+
+    private PropertiesParser(char[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Parses the contents of a file.
+     *
+     * @return <code>true</code>, as every file is a properties file
+     * @throws IOException if the file contains a malformed <code>\\uXXXX</code> sequence
+     */
+    static boolean parse(byte[] content, BundleFormat.Handler handler) throws IOException {
+        new PropertiesParser(decode(content)).parse(handler);
+        return true;
+    }
+
+    /**
+     * Decodes the contents as UTF-8, or as ISO-8859-1 if they are not valid UTF-8.
+     */
+    static char[] decode(byte[] content) {
+        char[] decoded = new char[content.length];
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] < 0) {
+                return decodeNonAscii(content);
+            }
+            decoded[i] = (char) content[i];
+        }
+        return decoded;
+    }
+
+    private static char[] decodeNonAscii(byte[] content) {
+        try {
+            CharBuffer chars = StandardCharsets.UTF_8
+                    .newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(content));
+            char[] decoded = new char[chars.remaining()];
+            chars.get(decoded);
+            return decoded;
+        } catch (CharacterCodingException ex) {
+            char[] decoded = new char[content.length];
+            for (int i = 0; i < content.length; i++) {
+                decoded[i] = (char) (content[i] & 0xff);
+            }
+            return decoded;
+        }
+    }
+
+    private void parse(BundleFormat.Handler handler) throws IOException {
+        while (readLine()) {
+            int limit = lineLength;
+            int keyLen = 0;
+            int valueStart = limit;
+            boolean hasSep = false;
+            boolean precedingBackslash = false;
+            while (keyLen < limit) {
+                char c = line[keyLen];
+                if ((c == '=' || c == ':') && !precedingBackslash) {
+                    valueStart = keyLen + 1;
+                    hasSep = true;
+                    break;
+                } else if (isWhitespace(c) && !precedingBackslash) {
+                    valueStart = keyLen + 1;
+                    break;
+                }
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                keyLen++;
+            }
+            while (valueStart < limit) {
+                char c = line[valueStart];
+                if (!isWhitespace(c)) {
+                    if (!hasSep && (c == '=' || c == ':')) {
+                        hasSep = true;
+                    } else {
+                        break;
+                    }
+                }
+                valueStart++;
+            }
+            unescape(0, keyLen);
+            String key = value.toString();
+            unescape(valueStart, limit);
+            handler.property(key, value);
+        }
+    }
+
+    /**
+     * Reads the next logical line that is not blank or a comment into {@link #line}, joining continued
+     * lines and leaving escapes in place.
+     *
+     * @return <code>false</code> at the end of the file
+     */
+    private boolean readLine() {
+        lineLength = 0;
+        boolean skipWhitespace = true;
+        boolean continued = false;
+        while (pos < data.length) {
+            char c = data[pos++];
+            if (skipWhitespace) {
+                if (isWhitespace(c)) {
+                    continue;
+                }
+                if (!continued && (c == '\r' || c == '\n')) {
+                    continue;
+                }
+                skipWhitespace = false;
+                if (!continued && lineLength == 0 && (c == '#' || c == '!')) {
+                    skipComment();
+                    skipWhitespace = true;
+                    continue;
+                }
+            }
+            if (c == '\r' || c == '\n') {
+                if (c == '\r' && pos < data.length && data[pos] == '\n') {
+                    pos++;
+                }
+                if (!endsWithEscape()) {
+                    return true;
+                }
+                lineLength--;
+                skipWhitespace = true;
+                continued = true;
+                continue;
+            }
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = c;
+            continued = false;
+        }
+        if (lineLength > 0) {
+            if (endsWithEscape()) {
+                lineLength--;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the current line ends with an odd number of backslashes, so that the line break is
+     *         escaped
+     */
+    private boolean endsWithEscape() {
+        int backslashes = 0;
+        for (int i = lineLength - 1; i >= 0 && line[i] == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 != 0;
+    }
+
+    private void skipComment() {
+        while (pos < data.length && data[pos] != '\r' && data[pos] != '\n') {
+            pos++;
+        }
+    }
+
+    /**
+     * Sets {@link #value} to a range of {@link #line} with its escapes resolved.
+     */
+    private void unescape(int from, int to) throws IOException {
+        value.length = 0;
+        value.ensureCapacity(to - from);
+        char[] out = value.chars;
+        int n = 0;
+        int i = from;
+        while (i < to) {
+            char c = line[i++];
+            if (c != '\\' || i == to) {
+                out[n++] = c;
+                continue;
+            }
+            c = line[i++];
+            if (c == 'u') {
+                if (i + 4 > to) {
+                    throw new IOException("Malformed \\uxxxx encoding");
+                }
+                int code = 0;
+                for (int j = 0; j < 4; j++) {
+                    int digit = Character.digit(line[i++], 16);
+                    if (digit < 0) {
+                        throw new IOException("Malformed \\uxxxx encoding");
+                    }
+                    code = (code << 4) | digit;
+                }
+                out[n++] = (char) code;
+            } else if (c == 't') {
+                out[n++] = '\t';
+            } else if (c == 'r') {
+                out[n++] = '\r';
+            } else if (c == 'n') {
+                out[n++] = '\n';
+            } else if (c == 'f') {
+                out[n++] = '\f';
+            } else {
+                out[n++] = c;
+            }
+        }
+        value.length = n;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    /**
+     * A reused buffer of characters.
+     */
+    private static class Chars implements CharSequence {
+
+        private char[] chars = new char[256];
+
+        private int length;
+
+        void ensureCapacity(int capacity) {
+            if (chars.length < capacity) {
+                chars = new char[Math.max(capacity, chars.length * 2)];
+            }
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Timings and counters of one report run, in total and broken down per project and per locale. The phases
+ * of the analysis and the rendering run on several threads, so the time of a phase per project or locale is
+ * the time spent by all threads together, while the stages of the run and the pages of a multi-page report
+ * are measured in elapsed time.
+ *
+ * @since 1.2.1
+ */
+class ReportMetrics {
+
+    /**
+     * The phases of an analysis that are measured per project and locale, and the rendering of the report,
+     * which is measured per project.
+     */
+    enum Phase {
+        SCAN,
+        LOAD,
+        DIFF,
+        RENDER
+    }
+
+    private final Map<String, Counters> projects = new ConcurrentSkipListMap<>();
+
+    private final Map<String, Counters> locales = new ConcurrentSkipListMap<>();
+
+    private final Map<String, Long> elapsed = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private final Map<String, Long> pages = new ConcurrentSkipListMap<>();
+
+    private final LongAdder storedProjects = new LongAdder();
+
+    private volatile int bundlesInMemory;
+
+    /**
+     * Records the elapsed time of a stage of the run, such as scanning, analysing or rendering.
+     */
+    void addElapsed(String stage, long nanos) {
+        elapsed.merge(stage, nanos, Long::sum);
+    }
+
+    /**
+     * Records the elapsed time of rendering a page of a multi-page report.
+     */
+    void addPage(String page, long nanos) {
+        pages.merge(page, nanos, Long::sum);
+    }
+
+    /**
+     * Wraps bundle statuses so that the time a thread spends on each of them, until it asks for the next one
+     * or finds there is none, is recorded for the project of the bundle in the given phase.
+     */
+    Iterable<BundleStatus> timed(Iterable<BundleStatus> statuses, Phase phase) {
+        return () -> new Iterator<BundleStatus>() {
+
+            private final Iterator<BundleStatus> it = statuses.iterator();
+
+            private BundleStatus current;
+
+            private long start;
+
+            @Override
+            public boolean hasNext() {
+                boolean next = it.hasNext();
+                if (!next) {
+                    stop();
+                }
+                return next;
+            }
+
+            @Override
+            public BundleStatus next() {
+                stop();
+                current = it.next();
+                start = System.nanoTime();
+                return current;
+            }
+
+            private void stop() {
+                if (current != null) {
+                    addTime(current.getProject().getId(), null, phase, System.nanoTime() - start);
+                    current = null;
+                }
+            }
+        };
+    }
+
+    /**
+     * Records the time a thread spent in a phase for a project, and optionally for a locale.
+     *
+     * @param locale the locale, or <code>null</code> for work on the default bundles
+     */
+    void addTime(String project, String locale, Phase phase, long nanos) {
+        counters(projects, project).time[phase.ordinal()].add(nanos);
+        if (locale != null) {
+            counters(locales, locale).time[phase.ordinal()].add(nanos);
+        }
+    }
+
+    /**
+     * Records a locale that is analysed, whether any file is found for it or not.
+     */
+    void addLocale(String locale) {
+        counters(locales, locale);
+    }
+
+    /**
+     * Records the bundle files that were found by scanning a project.
+     */
+    void addScannedFiles(String project, int count) {
+        counters(projects, project).files.add(count);
+    }
+
+    /**
+     * Records a bundle file of a project, and optionally of a locale, that was taken from the cache without
+     * reading it.
+     *
+     * @param locale the locale, or <code>null</code> for a default bundle
+     */
+    void addCachedFile(String project, String locale) {
+        counters(projects, project).cached.increment();
+        if (locale != null) {
+            counters(locales, locale).cached.increment();
+        }
+    }
+
+    /**
+     * Records a bundle file that was read for a project, and optionally for a locale.
+     *
+     * @param locale the locale, or <code>null</code> for a default bundle
+     */
+    void addLoadedFile(String project, String locale, long bytes, int keys) {
+        Counters counters = counters(projects, project);
+        counters.loaded.increment();
+        counters.bytes.add(bytes);
+        counters.keys.add(keys);
+        if (locale != null) {
+            counters = counters(locales, locale);
+            counters.loaded.increment();
+            counters.bytes.add(bytes);
+            counters.keys.add(keys);
+        }
+    }
+
+    /**
+     * Records a project whose stored status was used instead of analysing it.
+     */
+    void addStoredProject(String project) {
+        counters(projects, project);
+        storedProjects.increment();
+    }
+
+    /**
+     * Records the number of bundle files held in memory, keeping the largest.
+     */
+    synchronized void updateBundlesInMemory(int count) {
+        bundlesInMemory = Math.max(bundlesInMemory, count);
+    }
+
+    private static Counters counters(Map<String, Counters> map, String name) {
+        return map.computeIfAbsent(name, n -> new Counters());
+    }
+
+    /**
+     * Logs the totals.
+     */
+    void log(Log log) {
+        Counters total = total();
+        log.info(String.format(
+                Locale.ROOT,
+                "L10n status: %d projects (%d stored), %d bundle files loaded (%d KiB, %d keys), %d cached, "
+                        + "%d locales, peak %d bundle files in memory",
+                projects.size(),
+                storedProjects.sum(),
+                total.loaded.sum(),
+                total.bytes.sum() / 1024,
+                total.keys.sum(),
+                total.cached.sum(),
+                locales.size(),
+                bundlesInMemory));
+        StringBuilder stages = new StringBuilder("L10n status:");
+        synchronized (elapsed) {
+            for (Map.Entry<String, Long> entry : elapsed.entrySet()) {
+                stages.append(' ').append(entry.getKey()).append(' ').append(millis(entry.getValue()));
+                stages.append(" ms,");
+            }
+        }
+        log.info(stages.append(" threads: ").append(total).toString());
+        if (log.isDebugEnabled()) {
+            for (Map.Entry<String, Counters> entry : projects.entrySet()) {
+                log.debug("L10n status of " + entry.getKey() + ": " + entry.getValue());
+            }
+            for (Map.Entry<String, Counters> entry : locales.entrySet()) {
+                log.debug("L10n status of locale " + entry.getKey() + ": " + entry.getValue());
+            }
+            for (Map.Entry<String, Long> entry : pages.entrySet()) {
+                log.debug("L10n status page " + entry.getKey() + " rendered in " + millis(entry.getValue()) + " ms");
+            }
+        }
+    }
+
+    /**
+     * Writes the totals and the breakdown per project and per locale as JSON. Times are in milliseconds.
+     */
+    void writeJson(Writer out) throws IOException {
+        Counters total = total();
+        out.write("{\n  \"elapsed\": {");
+        String sep = "";
+        synchronized (elapsed) {
+            for (Map.Entry<String, Long> entry : elapsed.entrySet()) {
+                out.write(sep + StatusSummary.quote(entry.getKey()) + ": " + millis(entry.getValue()));
+                sep = ", ";
+            }
+        }
+        out.write("},\n  \"storedProjects\": " + storedProjects.sum() + ",\n  \"peakBundlesInMemory\": "
+                + bundlesInMemory + ",\n  \"pages\": {");
+        sep = "";
+        for (Map.Entry<String, Long> entry : pages.entrySet()) {
+            out.write(sep + StatusSummary.quote(entry.getKey()) + ": " + millis(entry.getValue()));
+            sep = ", ";
+        }
+        out.write("},\n  \"total\": " + total.toJson() + ",\n  \"projects\": {");
+        writeJson(out, projects);
+        out.write("\n  },\n  \"locales\": {");
+        writeJson(out, locales);
+        out.write("\n  }\n}\n");
+    }
+
+    private static void writeJson(Writer out, Map<String, Counters> map) throws IOException {
+        String sep = "\n";
+        for (Map.Entry<String, Counters> entry : map.entrySet()) {
+            out.write(sep + "    " + StatusSummary.quote(entry.getKey()) + ": "
+                    + entry.getValue().toJson());
+            sep = ",\n";
+        }
+    }
+
+    private Counters total() {
+        Counters total = new Counters();
+        for (Counters counters : projects.values()) {
+            total.add(counters);
+        }
+        return total;
+    }
+
+    private static String name(Phase phase) {
+        return phase.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static class Counters {
+
+        private final LongAdder[] time = new LongAdder[Phase.values().length];
+
+        private final LongAdder files = new LongAdder();
+
+        private final LongAdder loaded = new LongAdder();
+
+        private final LongAdder cached = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+
+        private final LongAdder keys = new LongAdder();
+
+        Counters() {
+            for (int i = 0; i < time.length; i++) {
+                time[i] = new LongAdder();
+            }
+        }
+
+        void add(Counters other) {
+            for (int i = 0; i < time.length; i++) {
+                time[i].add(other.time[i].sum());
+            }
+            files.add(other.files.sum());
+            loaded.add(other.loaded.sum());
+            cached.add(other.cached.sum());
+            bytes.add(other.bytes.sum());
+            keys.add(other.keys.sum());
+        }
+
+        String toJson() {
+            StringBuilder sb = new StringBuilder("{");
+            for (Phase phase : Phase.values()) {
+                sb.append('"').append(name(phase)).append("\": ").append(millis(time[phase.ordinal()].sum()));
+                sb.append(", ");
+            }
+            return sb.append("\"scannedFiles\": ")
+                    .append(files.sum())
+                    .append(", \"loadedFiles\": ")
+                    .append(loaded.sum())
+                    .append(", \"cachedFiles\": ")
+                    .append(cached.sum())
+                    .append(", \"bytes\": ")
+                    .append(bytes.sum())
+                    .append(", \"keys\": ")
+                    .append(keys.sum())
+                    .append('}')
+                    .toString();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.ROOT,
+                    "scan %d ms, load %d ms, diff %d ms, render %d ms, %d files scanned, %d loaded (%d bytes, %d keys),"
+                            + " %d cached",
+                    millis(time[Phase.SCAN.ordinal()].sum()),
+                    millis(time[Phase.LOAD.ordinal()].sum()),
+                    millis(time[Phase.DIFF.ordinal()].sum()),
+                    millis(time[Phase.RENDER.ordinal()].sum()),
+                    files.sum(),
+                    loaded.sum(),
+                    bytes.sum(),
+                    keys.sum(),
+                    cached.sum());
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.AbstractScanner;
+import org.codehaus.plexus.util.MatchPattern;
+import org.codehaus.plexus.util.MatchPatterns;
+
+/**
+ * Finds the bundle files of many resource directories with as few directory walks as possible. Resource
+ * directories are compared by their canonical path, so a directory that is used by several resources, or
+ * lies within another one, is walked only once. The include and exclude patterns follow the rules of
+ * {@link org.codehaus.plexus.util.DirectoryScanner} and are compiled once per distinct set of patterns.
+ * Subdirectories that cannot hold an included file, or that are excluded as a whole, are not entered.
+ *
+ * @since 1.2.1
+ */
+class ResourceScanner {
+
+    private final List<String> includes;
+
+    private final List<String> excludes;
+
+    private final BundleFormats formats;
+
+    private final Log log;
+
+    private final ReportMetrics metrics;
+
+    private final Map<List<String>, Matcher> matchers = new HashMap<>();
+
+    private final List<Spec> specs = new ArrayList<>();
+
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param includes additional include patterns, may be <code>null</code>
+     * @param excludes exclude patterns used for resources without their own, may be <code>null</code>
+     * @param formats the formats whose files are included if there are no include patterns
+     */
+    ResourceScanner(
+            List<String> includes, List<String> excludes, BundleFormats formats, Log log, ReportMetrics metrics) {
+        this.includes = includes;
+        this.excludes = excludes;
+        this.formats = formats;
+        this.log = log;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Creates one task per directory walk that finds the bundle files of all the resources within that walk.
+     */
+    List<Callable<List<BundleAnalyzer.Wrapper>>> tasks(Map<MavenProject, List<Resource>> resources) throws IOException {
+        Map<Path, List<Spec>> roots = new TreeMap<>();
+        Set<List<Object>> seen = new HashSet<>();
+        for (Map.Entry<MavenProject, List<Resource>> entry : resources.entrySet()) {
+            for (Resource resource : entry.getValue()) {
+                Spec spec = createSpec(entry.getKey(), resource);
+                if (spec != null && seen.add(Arrays.asList(spec.project, spec.root, spec.include, spec.exclude))) {
+                    specs.add(spec);
+                    roots.computeIfAbsent(spec.root, r -> new ArrayList<>()).add(spec);
+                }
+            }
+        }
+
+        // Sorted paths list every directory before the directories within it
+        Map<Path, List<Spec>> walks = new LinkedHashMap<>();
+        for (Map.Entry<Path, List<Spec>> entry : roots.entrySet()) {
+            Path walk = entry.getKey();
+            for (Path outer : walks.keySet()) {
+                if (walk.startsWith(outer)) {
+                    walk = outer;
+                    break;
+                }
+            }
+            walks.computeIfAbsent(walk, w -> new ArrayList<>()).addAll(entry.getValue());
+        }
+
+        List<Callable<List<BundleAnalyzer.Wrapper>>> tasks = new ArrayList<>(walks.size());
+        for (Map.Entry<Path, List<Spec>> entry : walks.entrySet()) {
+            tasks.add(() -> walk(entry.getKey(), entry.getValue()));
+        }
+        return tasks;
+    }
+
+    /**
+     * @return the real paths of the directories entered by the walks so far
+     */
+    Set<Path> getDirectories() {
+        return directories;
+    }
+
+    /**
+     * Lists the included files directly within one directory, for all resources of the previous walks.
+     *
+     * @param dir the real path of the directory
+     */
+    List<BundleAnalyzer.Wrapper> list(Path dir) throws IOException {
+        List<BundleAnalyzer.Wrapper> found = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return found;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                for (Spec spec : specs) {
+                    if (file.startsWith(spec.root)) {
+                        String name = spec.root.relativize(file).toString();
+                        if (spec.include.matches(name) && !spec.exclude.matches(name)) {
+                            found.add(new BundleAnalyzer.Wrapper(
+                                    name, new File(spec.directory, name), spec.project, spec.targetPath));
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the resource with its compiled patterns, or <code>null</code> if its directory does not exist
+     */
+    private Spec createSpec(MavenProject prj, Resource resource) throws IOException {
+        File resourceDirectory = new File(resource.getDirectory());
+        if (!resourceDirectory.isDirectory()) {
+            log.info("Resource directory does not exist: " + resourceDirectory);
+            metrics.addScannedFiles(prj.getId(), 0);
+            return null;
+        }
+
+        List<String> allIncludes = new ArrayList<>();
+        if (resource.getIncludes() != null && !resource.getIncludes().isEmpty()) {
+            allIncludes.addAll(resource.getIncludes());
+        }
+        if (includes != null && !includes.isEmpty()) {
+            allIncludes.addAll(includes);
+        }
+        List<String> allExcludes = new ArrayList<>();
+        if (allIncludes.isEmpty()) {
+            allIncludes.addAll(formats.getIncludes());
+            allExcludes.addAll(formats.getExcludes());
+        }
+
+        if (resource.getExcludes() != null && !resource.getExcludes().isEmpty()) {
+            allExcludes.addAll(resource.getExcludes());
+        } else if (excludes != null && !excludes.isEmpty()) {
+            allExcludes.addAll(excludes);
+        }
+        allExcludes.addAll(Arrays.asList(AbstractScanner.DEFAULTEXCLUDES));
+
+        return new Spec(
+                prj,
+                resourceDirectory,
+                resourceDirectory.toPath().toRealPath(),
+                resource.getTargetPath(),
+                matcher(allIncludes),
+                matcher(allExcludes));
+    }
+
+    private Matcher matcher(List<String> patterns) {
+        synchronized (matchers) {
+            return matchers.computeIfAbsent(patterns, Matcher::new);
+        }
+    }
+
+    /**
+     * Walks one directory tree and collects the included files of every resource within it. The time of the walk
+     * is shared evenly by the projects whose resources it covers.
+     */
+    private List<BundleAnalyzer.Wrapper> walk(Path root, List<Spec> specs) throws IOException {
+        long start = System.nanoTime();
+        List<BundleAnalyzer.Wrapper> found = new ArrayList<>();
+        Map<MavenProject, Integer> counts = new LinkedHashMap<>();
+        for (Spec spec : specs) {
+            counts.put(spec.project, 0);
+        }
+        Files.walkFileTree(
+                root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        for (Spec spec : specs) {
+                            if (spec.root.startsWith(dir)) {
+                                directories.add(dir);
+                                return FileVisitResult.CONTINUE;
+                            }
+                            if (dir.startsWith(spec.root)) {
+                                String name = spec.root.relativize(dir).toString();
+                                if (spec.include.couldHold(name) && !spec.exclude.excludesAllWithin(name)) {
+                                    directories.add(dir);
+                                    return FileVisitResult.CONTINUE;
+                                }
+                            }
+                        }
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (!attrs.isRegularFile()) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                        for (Spec spec : specs) {
+                            if (file.startsWith(spec.root)) {
+                                String name = spec.root.relativize(file).toString();
+                                if (spec.include.matches(name) && !spec.exclude.matches(name)) {
+                                    found.add(new BundleAnalyzer.Wrapper(
+                                            name, new File(spec.directory, name), spec.project, spec.targetPath));
+                                    counts.merge(spec.project, 1, Integer::sum);
+                                }
+                            }
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                        log.debug("Unable to scan " + file + ": " + ex.getMessage());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+
+        long share = (System.nanoTime() - start) / counts.size();
+        for (Map.Entry<MavenProject, Integer> count : counts.entrySet()) {
+            metrics.addTime(count.getKey().getId(), null, ReportMetrics.Phase.SCAN, share);
+            metrics.addScannedFiles(count.getKey().getId(), count.getValue());
+        }
+        return found;
+    }
+
+    /**
+     * A resource directory with the patterns to apply to it.
+     */
+    private static class Spec {
+
+        private final MavenProject project;
+
+        /**
+         * The directory as configured, used for the found files.
+         */
+        private final File directory;
+
+        private final Path root;
+
+        /**
+         * The target path of the resource, may be <code>null</code>.
+         */
+        private final String targetPath;
+
+        private final Matcher include;
+
+        private final Matcher exclude;
+
+        Spec(MavenProject project, File directory, Path root, String targetPath, Matcher include, Matcher exclude) {
+            this.project = project;
+            this.directory = directory;
+            this.root = root;
+            this.targetPath = targetPath;
+            this.include = include;
+            this.exclude = exclude;
+        }
+    }
+
+    /**
+     * A compiled set of patterns, normalized like {@link AbstractScanner#setIncludes(String[])} does.
+     */
+    private static class Matcher {
+
+        private final MatchPatterns patterns;
+
+        /**
+         * The patterns ending with <code>**</code>, which match everything within a directory they match.
+         */
+        private final List<MatchPattern> subtreePatterns = new ArrayList<>();
+
+        Matcher(List<String> sources) {
+            List<String> normalized = new ArrayList<>(sources.size());
+            for (String source : sources) {
+                String pattern = normalize(source);
+                normalized.add(pattern);
+                if (!pattern.startsWith("%") && pattern.endsWith("**")) {
+                    subtreePatterns.add(MatchPattern.fromString(pattern));
+                }
+            }
+            patterns = MatchPatterns.from(normalized);
+        }
+
+        boolean matches(String name) {
+            return patterns.matches(name, true);
+        }
+
+        /**
+         * @return whether a file within the given directory could match
+         */
+        boolean couldHold(String name) {
+            return patterns.matchesPatternStart(name, true);
+        }
+
+        /**
+         * @return whether every file within the given directory matches
+         */
+        boolean excludesAllWithin(String name) {
+            for (MatchPattern pattern : subtreePatterns) {
+                if (pattern.matchPath(name, true)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String normalize(String name) {
+            String pattern = name.trim();
+            if (pattern.startsWith("%regex[") || pattern.startsWith("%ant[")) {
+                return pattern;
+            }
+            pattern = pattern.replace('/', File.separatorChar).replace('\\', File.separatorChar);
+            if (pattern.endsWith(File.separator)) {
+                pattern += "**";
+            }
+            return pattern;
+        }
+    }
+}
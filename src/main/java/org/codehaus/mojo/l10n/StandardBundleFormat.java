@@ -0,0 +1,125 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The bundle formats that come with the plugin.
+ *
+ * @since 1.2.1
+ */
+enum StandardBundleFormat implements BundleFormat {
+
+    /**
+     * <code>.properties</code> files, as read by {@link java.util.PropertyResourceBundle}.
+     */
+    PROPERTIES("properties", ".properties", null, "_") {
+        @Override
+        public boolean parse(byte[] content, Handler handler) throws IOException {
+            return PropertiesParser.parse(content, handler);
+        }
+    },
+
+    /**
+     * XML properties files, as read by {@link java.util.Properties#loadFromXML(java.io.InputStream)}.
+     */
+    XML("xml", ".xml", null, "_") {
+        @Override
+        public boolean parse(byte[] content, Handler handler) throws IOException {
+            return XmlPropertiesParser.parse(content, handler);
+        }
+    },
+
+    /**
+     * JSON files of string values, flat or nested, e.g. <code>messages.de.json</code>. The keys of nested
+     * values are joined with dots.
+     */
+    JSON("json", ".json", null, "_-.") {
+        @Override
+        public List<String> getNonBundleNames() {
+            return Arrays.asList("package.json", "package-lock.json", "tsconfig.json", "composer.json");
+        }
+
+        @Override
+        public boolean parse(byte[] content, Handler handler) throws IOException {
+            return JsonBundleParser.parse(content, handler);
+        }
+    },
+
+    /**
+     * gettext catalogs, with a <code>.pot</code> template as the default bundle.
+     */
+    PO("po", ".po", ".pot", "_-.") {
+        @Override
+        public boolean parse(byte[] content, Handler handler) throws IOException {
+            return PoParser.parse(content, handler);
+        }
+    };
+
+    /**
+     * The names of Java bundles that are localized even without a default bundle, e.g. <code>name_de_CH</code>.
+     */
+    private static final Pattern LOCALIZED_STEM = Pattern.compile(".*_[a-zA-Z]{2}[_]?[a-zA-Z]{0,2}?");
+
+    private final String name;
+
+    private final String suffix;
+
+    private final String templateSuffix;
+
+    private final String separators;
+
+    StandardBundleFormat(String name, String suffix, String templateSuffix, String separators) {
+        this.name = name;
+        this.suffix = suffix;
+        this.templateSuffix = templateSuffix;
+        this.separators = separators;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getSuffix() {
+        return suffix;
+    }
+
+    @Override
+    public String getTemplateSuffix() {
+        return templateSuffix;
+    }
+
+    @Override
+    public String getSeparators() {
+        return separators;
+    }
+
+    @Override
+    public boolean isLocalized(String stem) {
+        return (this == PROPERTIES || this == XML)
+                && LOCALIZED_STEM.matcher(stem).matches();
+    }
+}
@@ -0,0 +1,595 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * On-disk cache of analysed bundle files and their per-locale comparison results. Files are identified
+ * by path and validated by size, modification time and content fingerprint, so that only changed files
+ * are parsed again on the next run. The cache may be used by several analysis threads at once.
+ *
+ * @since 1.2.1
+ */
+class StatusCache {
+
+    private static final int MAGIC = 0x4c31304e;
+
+    private static final int FORMAT_VERSION = 6;
+
+    private final File cacheFile;
+
+    private final String signature;
+
+    private final Map<String, BundleFile> files = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedDiff> results = new ConcurrentHashMap<>();
+
+    private final Set<String> usedFiles = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> usedResults = ConcurrentHashMap.newKeySet();
+
+    private final boolean retain;
+
+    private volatile boolean dirty;
+
+    private StatusCache(File cacheFile, String signature, boolean retain) {
+        this.cacheFile = cacheFile;
+        this.signature = signature;
+        this.retain = retain;
+    }
+
+    /**
+     * @return a cache that keeps nothing, so that every file is parsed and compared when it is asked for
+     */
+    static StatusCache none(String signature) {
+        return new StatusCache(null, signature, false);
+    }
+
+    /**
+     * Reads the cache from disk. A missing, unreadable or stale cache file results in an empty cache.
+     *
+     * @param cacheFile the cache file, or <code>null</code> for a cache that is never persisted
+     * @param signature the plugin version and configuration the cached results were computed with
+     * @param log the log for reporting an unreadable cache
+     */
+    static StatusCache load(File cacheFile, String signature, Log log) {
+        StatusCache cache = new StatusCache(cacheFile, signature, true);
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return cache;
+        }
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !signature.equals(readString(in))) {
+                log.debug("Discarding l10n status cache " + cacheFile + " created with a different configuration");
+                return cache;
+            }
+            int fileCount = in.readInt();
+            for (int i = 0; i < fileCount; i++) {
+                BundleFile file = BundleFile.read(in);
+                cache.files.put(file.path, file);
+            }
+            int resultCount = in.readInt();
+            for (int i = 0; i < resultCount; i++) {
+                String id = readString(in);
+                CachedDiff diff = CachedDiff.read(in, cache.files);
+                if (diff != null) {
+                    cache.results.put(id, diff);
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Unable to read l10n status cache " + cacheFile + ": " + ex.getMessage());
+            cache.files.clear();
+            cache.results.clear();
+        }
+        return cache;
+    }
+
+    /**
+     * @return the signature of the plugin version and the parts of the configuration that cached results
+     *         depend on
+     */
+    static String signature(String pluginVersion, List<String> includes, List<String> excludes, BundleFormats formats) {
+        return pluginVersion + '|' + includes + '|' + excludes + '|' + formats.getSortedNames();
+    }
+
+    /**
+     * @return the plugin version and configuration the cached results were computed with
+     */
+    String getSignature() {
+        return signature;
+    }
+
+    /**
+     * Writes the entries used during this run back to disk, dropping those of files that no longer exist. The
+     * file is replaced only once it is complete, so an interrupted or concurrent build never leaves a
+     * truncated cache behind.
+     */
+    void store() throws IOException {
+        if (cacheFile == null || (!dirty && usedFiles.size() == files.size() && usedResults.size() == results.size())) {
+            return;
+        }
+        files.keySet().retainAll(usedFiles);
+        results.keySet().retainAll(usedResults);
+        write(cacheFile, out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, signature);
+            out.writeInt(files.size());
+            for (BundleFile file : files.values()) {
+                file.write(out);
+            }
+            out.writeInt(results.size());
+            for (Map.Entry<String, CachedDiff> entry : results.entrySet()) {
+                writeString(out, entry.getKey());
+                entry.getValue().write(out);
+            }
+        });
+        dirty = false;
+    }
+
+    /**
+     * Writes a file through a temporary file in the same directory, which replaces it only once it is complete,
+     * so an interrupted or concurrent build never leaves a truncated file behind.
+     */
+    static void write(File file, Contents contents) throws IOException {
+        Path parent = file.getAbsoluteFile().getParentFile().toPath();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getName(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            contents.write(out);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        try {
+            Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * The contents of a file written by {@link #write(File, Contents)}.
+     */
+    interface Contents {
+
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Returns the analysed contents of a bundle file, parsing it only if it changed since it was cached.
+     *
+     * @return the contents, or <code>null</code> if the file is not a bundle of its format
+     */
+    BundleFile getFile(File file) throws IOException {
+        BundleFile cached = getCached(file);
+        return cached != null ? cached : load(file);
+    }
+
+    /**
+     * Returns the analysed contents of a bundle file if its size and modification time are those it was
+     * cached with, without reading it.
+     *
+     * @return the cached contents, or <code>null</code> if the file needs to be loaded
+     */
+    BundleFile getCached(File file) {
+        if (!retain) {
+            return null;
+        }
+        String path = file.getAbsolutePath();
+        BundleFile cached = files.get(path);
+        if (cached != null && cached.size == file.length() && cached.lastModified == file.lastModified()) {
+            usedFiles.add(path);
+            return cached;
+        }
+        return null;
+    }
+
+    /**
+     * Reads a bundle file and parses it, unless its contents are those it was cached with.
+     *
+     * @return the contents, or <code>null</code> if the file is not a bundle of its format
+     */
+    BundleFile load(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        if (!retain) {
+            byte[] data = Files.readAllBytes(file.toPath());
+            return BundleFile.parse(path, lastModified, Fingerprint.of(data, 0, data.length), data);
+        }
+        usedFiles.add(path);
+        BundleFile cached = files.get(path);
+
+        byte[] data = Files.readAllBytes(file.toPath());
+        long contentHash = Fingerprint.of(data, 0, data.length);
+        dirty = true;
+        if (cached != null && cached.contentHash == contentHash) {
+            // Other threads may be reading the cached entry, so it is replaced rather than updated
+            BundleFile touched = cached.withFile(data.length, lastModified);
+            files.put(path, touched);
+            return touched;
+        }
+        BundleFile parsed = BundleFile.parse(path, lastModified, contentHash, data);
+        if (parsed == null) {
+            files.remove(path);
+            return null;
+        }
+        files.put(path, parsed);
+        return parsed;
+    }
+
+    /**
+     * Returns the comparison of a localized bundle file with its default bundle file, computing it only
+     * if either of them changed since it was cached.
+     */
+    LocaleDiff getDiff(BundleFile base, BundleFile localized, String locale) throws IOException {
+        if (!retain) {
+            return compare(base, localized, locale);
+        }
+        String id = base.path + '\n' + localized.path;
+        usedResults.add(id);
+        CachedDiff cached = results.get(id);
+        if (cached != null && cached.baseHash == base.contentHash && cached.localizedHash == localized.contentHash) {
+            return cached.diff;
+        }
+        LocaleDiff computed = compare(base, localized, locale);
+        results.put(id, new CachedDiff(base.path, base.contentHash, localized.contentHash, computed));
+        dirty = true;
+        return computed;
+    }
+
+    /**
+     * Compares both files by looking up every localized key in the index of the default keys. The
+     * placeholders of translated values are compared by the signatures computed when the files were parsed.
+     */
+    static LocaleDiff compare(BundleFile base, BundleFile localized, String locale) throws IOException {
+        KeyIndex index = base.getIndex();
+        BitSet defined = new BitSet(index.size());
+        BitSet unchanged = new BitSet(index.size());
+        BitSet mismatched = new BitSet(index.size());
+        BitSet mismatchedLocalized = null;
+        List<String> additional = new ArrayList<>();
+        for (int j = 0; j < localized.keys.length; j++) {
+            int i = index.indexOf(localized.keys[j]);
+            if (i < 0) {
+                additional.add(localized.keys[j]);
+            } else {
+                defined.set(i);
+                if (base.valueHashes[i] == localized.valueHashes[j]) {
+                    unchanged.set(i);
+                } else if (base.placeholders[i] != localized.placeholders[j]) {
+                    mismatched.set(i);
+                    if (mismatchedLocalized == null) {
+                        mismatchedLocalized = new BitSet(localized.keys.length);
+                    }
+                    mismatchedLocalized.set(j);
+                }
+            }
+        }
+
+        String[] nonTranslatedValues = unchanged.isEmpty() ? new String[0] : base.getValues(unchanged);
+        String[] mismatchedValues =
+                mismatchedLocalized == null ? new String[0] : localized.getValues(mismatchedLocalized);
+        return new LocaleDiff(
+                locale,
+                base.keys,
+                true,
+                defined,
+                unchanged,
+                additional.toArray(new String[0]),
+                nonTranslatedValues,
+                mismatched,
+                mismatchedValues);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String[] readStrings(DataInputStream in) throws IOException {
+        String[] values = new String[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(in);
+        }
+        return values;
+    }
+
+    static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    /**
+     * The sorted keys, value fingerprints and placeholder signatures of a single bundle file.
+     */
+    static class BundleFile {
+
+        private static final long BLANK = Fingerprint.of("");
+
+        private final String path;
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final long contentHash;
+
+        private final String[] keys;
+
+        private final long[] valueHashes;
+
+        /**
+         * The {@link Placeholders} signatures of the values, so that those of a default bundle are computed
+         * once for all its locales.
+         */
+        private final long[] placeholders;
+
+        /**
+         * The fingerprints of the values without surrounding and repeated whitespace, or <code>0</code> for
+         * blank values, by which equal texts are found across bundles.
+         */
+        private final long[] normalizedHashes;
+
+        private KeyIndex index;
+
+        /**
+         * The values of the keys that were asked for, by key index, or <code>null</code> if none were.
+         */
+        private String[] values;
+
+        private BundleFile(
+                String path,
+                long size,
+                long lastModified,
+                long contentHash,
+                String[] keys,
+                long[] hashes,
+                long[] placeholders,
+                long[] normalizedHashes) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+            this.keys = keys;
+            this.valueHashes = hashes;
+            this.placeholders = placeholders;
+            this.normalizedHashes = normalizedHashes;
+        }
+
+        /**
+         * Parses the contents of a file, keeping only the keys, the fingerprints of the values, also after
+         * normalizing their whitespace, and their placeholder signatures.
+         *
+         * @return the parsed file, or <code>null</code> if it is not a bundle of its format
+         */
+        static BundleFile parse(String path, long lastModified, long contentHash, byte[] data) throws IOException {
+            Map<String, long[]> hashes = new HashMap<>();
+            try {
+                if (!BundleFormats.parse(
+                        path,
+                        data,
+                        (key, value) -> hashes.put(key, new long[] {
+                            Fingerprint.of(value), Placeholders.of(value), Fingerprint.ofNormalized(value)
+                        }))) {
+                    return null;
+                }
+            } catch (IOException ex) {
+                throw new IOException("Unable to parse " + path + ": " + ex.getMessage(), ex);
+            }
+            String[] keys = hashes.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            long[] valueHashes = new long[keys.length];
+            long[] placeholders = new long[keys.length];
+            long[] normalizedHashes = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                long[] h = hashes.get(keys[i]);
+                valueHashes[i] = h[0];
+                placeholders[i] = h[1];
+                normalizedHashes[i] = h[2] != BLANK ? h[2] : 0;
+            }
+            return new BundleFile(
+                    path, data.length, lastModified, contentHash, keys, valueHashes, placeholders, normalizedHashes);
+        }
+
+        /**
+         * @return the sorted keys defined in this file
+         */
+        String[] getKeys() {
+            return keys;
+        }
+
+        /**
+         * @return the fingerprints of the values with normalized whitespace, or <code>0</code> for blank values,
+         *         in key order
+         */
+        long[] getNormalizedHashes() {
+            return normalizedHashes;
+        }
+
+        /**
+         * @return the same contents for a file with another size or modification time, sharing the parsed keys
+         *         and fingerprints
+         */
+        BundleFile withFile(long size, long lastModified) {
+            return new BundleFile(
+                    path, size, lastModified, contentHash, keys, valueHashes, placeholders, normalizedHashes);
+        }
+
+        /**
+         * @return the size of the file in bytes
+         */
+        long getLength() {
+            return size;
+        }
+
+        /**
+         * @return the index of the keys, built on first use
+         */
+        synchronized KeyIndex getIndex() {
+            if (index == null) {
+                index = new KeyIndex(keys);
+            }
+            return index;
+        }
+
+        /**
+         * @return the number of keys defined in this file
+         */
+        int size() {
+            return keys.length;
+        }
+
+        /**
+         * Returns the values of some keys, reading the file again for those that were not asked for before.
+         * Only these values are kept.
+         *
+         * @param indexes the indexes of the keys
+         * @return the values, in index order
+         */
+        synchronized String[] getValues(BitSet indexes) throws IOException {
+            if (values == null) {
+                values = new String[keys.length];
+            }
+            BitSet wanted = new BitSet();
+            for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+                if (values[i] == null) {
+                    wanted.set(i);
+                }
+            }
+            if (!wanted.isEmpty()) {
+                KeyIndex index = getIndex();
+                BundleFormats.parse(path, Files.readAllBytes(new File(path).toPath()), (key, value) -> {
+                    int i = index.indexOf(key);
+                    if (i >= 0 && wanted.get(i)) {
+                        values[i] = value.toString();
+                    }
+                });
+            }
+            String[] result = new String[indexes.cardinality()];
+            int k = 0;
+            for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+                result[k++] = values[i];
+            }
+            return result;
+        }
+
+        static BundleFile read(DataInputStream in) throws IOException {
+            String path = readString(in);
+            long size = in.readLong();
+            long lastModified = in.readLong();
+            long contentHash = in.readLong();
+            String[] keys = readStrings(in);
+            long[] hashes = new long[keys.length];
+            long[] placeholders = new long[keys.length];
+            long[] normalizedHashes = new long[keys.length];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = in.readLong();
+                placeholders[i] = in.readLong();
+                normalizedHashes[i] = in.readLong();
+            }
+            return new BundleFile(path, size, lastModified, contentHash, keys, hashes, placeholders, normalizedHashes);
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            writeString(out, path);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeLong(contentHash);
+            writeStrings(out, keys);
+            for (int i = 0; i < keys.length; i++) {
+                out.writeLong(valueHashes[i]);
+                out.writeLong(placeholders[i]);
+                out.writeLong(normalizedHashes[i]);
+            }
+        }
+    }
+
+    /**
+     * A diff together with the content fingerprints of the two files it was computed from.
+     */
+    private static class CachedDiff {
+
+        private final String basePath;
+
+        private final long baseHash;
+
+        private final long localizedHash;
+
+        private final LocaleDiff diff;
+
+        CachedDiff(String basePath, long baseHash, long localizedHash, LocaleDiff diff) {
+            this.basePath = basePath;
+            this.baseHash = baseHash;
+            this.localizedHash = localizedHash;
+            this.diff = diff;
+        }
+
+        /**
+         * @return the diff, or <code>null</code> if the cached default bundle it refers to is outdated
+         */
+        static CachedDiff read(DataInputStream in, Map<String, BundleFile> files) throws IOException {
+            String basePath = readString(in);
+            long baseHash = in.readLong();
+            long localizedHash = in.readLong();
+            BundleFile base = files.get(basePath);
+            boolean valid = base != null && base.contentHash == baseHash;
+            LocaleDiff diff = LocaleDiff.read(in, valid ? base.keys : null);
+            return valid ? new CachedDiff(basePath, baseHash, localizedHash, diff) : null;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            writeString(out, basePath);
+            out.writeLong(baseHash);
+            out.writeLong(localizedHash);
+            diff.write(out);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.maven.project.MavenProject;
+
+/**
+ * A temporary file holding analysed bundles, so that they do not have to be kept in memory until the report
+ * is rendered. Every iteration reads the bundles back one at a time, in the order they were added. Several
+ * iterations may run at the same time.
+ *
+ * @since 1.2.1
+ */
+class StatusSpill implements Iterable<BundleStatus>, BundleAnalyzer.StatusConsumer, Closeable {
+
+    private final Path file;
+
+    private final List<String> locales;
+
+    private final List<MavenProject> projects = new ArrayList<>();
+
+    private final Map<MavenProject, Integer> projectIndexes = new HashMap<>();
+
+    /**
+     * The offset in the file of the first bundle of each project, by project index.
+     */
+    private final List<Long> projectOffsets = new ArrayList<>();
+
+    /**
+     * The number of bundles of each project, by project index.
+     */
+    private final List<Integer> projectCounts = new ArrayList<>();
+
+    /**
+     * Whether the bundles of each project were added one after another.
+     */
+    private boolean grouped = true;
+
+    /**
+     * The streams of the iterations that have not read all their bundles yet.
+     */
+    private final Set<Closeable> readers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private DataOutputStream out;
+
+    private int count;
+
+    /**
+     * @param directory the directory to create the file in
+     * @param locales the locales to keep the diffs of
+     */
+    StatusSpill(File directory, List<String> locales) throws IOException {
+        Files.createDirectories(directory.toPath());
+        this.file = Files.createTempFile(directory.toPath(), "l10n-status", ".spill");
+        this.locales = locales;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+    }
+
+    @Override
+    public void accept(BundleStatus status) throws IOException {
+        Integer index = projectIndexes.get(status.getProject());
+        if (index == null) {
+            index = projects.size();
+            projects.add(status.getProject());
+            projectIndexes.put(status.getProject(), index);
+            out.flush();
+            projectOffsets.add(Files.size(file));
+            projectCounts.add(0);
+        } else if (index != projects.size() - 1) {
+            grouped = false;
+        }
+        projectCounts.set(index, projectCounts.get(index) + 1);
+        out.writeInt(index);
+        status.write(out, locales);
+        count++;
+    }
+
+    /**
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    @Override
+    public Iterator<BundleStatus> iterator() {
+        return iterator(0, count);
+    }
+
+    /**
+     * Groups the bundles by project, in the order the projects were added. If the bundles of each project
+     * were added one after another, the bundles of a project are read without reading those of the others.
+     */
+    Map<MavenProject, Iterable<BundleStatus>> byProject() {
+        Map<MavenProject, Iterable<BundleStatus>> byProject = new LinkedHashMap<>();
+        for (int i = 0; i < projects.size(); i++) {
+            MavenProject project = projects.get(i);
+            if (grouped) {
+                long offset = projectOffsets.get(i);
+                int projectCount = projectCounts.get(i);
+                byProject.put(project, () -> iterator(offset, projectCount));
+            } else {
+                byProject.put(project, () -> new Iterator<BundleStatus>() {
+
+                    private final Iterator<BundleStatus> all = iterator();
+
+                    private BundleStatus next = advance();
+
+                    private BundleStatus advance() {
+                        while (all.hasNext()) {
+                            BundleStatus status = all.next();
+                            if (status.getProject() == project) {
+                                return status;
+                            }
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public BundleStatus next() {
+                        if (next == null) {
+                            throw new NoSuchElementException();
+                        }
+                        BundleStatus status = next;
+                        next = advance();
+                        return status;
+                    }
+                });
+            }
+        }
+        return byProject;
+    }
+
+    /**
+     * @param offset the offset of the first bundle to read
+     * @param count the number of bundles to read
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    private synchronized Iterator<BundleStatus> iterator(long offset, int count) {
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            InputStream stream = Files.newInputStream(file);
+            readers.add(stream);
+            long skipped = 0;
+            while (skipped < offset) {
+                long n = stream.skip(offset - skipped);
+                if (n <= 0) {
+                    release(stream);
+                    throw new IOException("Unable to skip to offset " + offset + " of " + file);
+                }
+                skipped += n;
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+            if (count == 0) {
+                release(stream);
+            }
+            return new Iterator<BundleStatus>() {
+
+                private int read;
+
+                @Override
+                public boolean hasNext() {
+                    return read < count;
+                }
+
+                @Override
+                public BundleStatus next() {
+                    if (read == count) {
+                        throw new NoSuchElementException();
+                    }
+                    try {
+                        BundleStatus status = BundleStatus.read(in, projects.get(in.readInt()));
+                        if (++read == count) {
+                            release(stream);
+                        }
+                        return status;
+                    } catch (IOException ex) {
+                        read = count;
+                        try {
+                            release(stream);
+                        } catch (IOException closeEx) {
+                            ex.addSuppressed(closeEx);
+                        }
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            };
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Closes the stream of an iteration and forgets it.
+     */
+    private synchronized void release(InputStream stream) throws IOException {
+        readers.remove(stream);
+        stream.close();
+    }
+
+    /**
+     * Deletes the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+        for (Closeable reader : readers) {
+            reader.close();
+        }
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,231 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Totals per locale over a list of analysed bundles, and their output as JSON or CSV.
+ *
+ * @since 1.2.1
+ */
+class StatusSummary {
+
+    private final String name;
+
+    private final List<BundleStatus> statuses;
+
+    private final Map<String, LocaleTotals> totals = new LinkedHashMap<>();
+
+    private int keyCount;
+
+    /**
+     * @param name the name of the summarized project
+     * @param statuses the analysed bundles
+     * @param locales the analysed locales
+     */
+    StatusSummary(String name, List<BundleStatus> statuses, List<String> locales) {
+        this.name = name;
+        this.statuses = statuses;
+        for (String locale : locales) {
+            totals.put(locale, new LocaleTotals(locale));
+        }
+        for (BundleStatus status : statuses) {
+            keyCount += status.getKeyCount();
+            for (LocaleDiff diff : status.getDiffs()) {
+                LocaleTotals t = totals.get(diff.getLocale());
+                t.translated += diff.getTranslatedCount();
+                t.missing += diff.getMissingCount();
+                t.additional += diff.getAdditionalCount();
+                t.nonTranslated += diff.getNonTranslatedCount();
+                t.mismatched += diff.getMismatchedCount();
+                t.inherited += diff.getInheritedCount();
+            }
+        }
+    }
+
+    /**
+     * @return the number of keys in all default bundles
+     */
+    int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * @return the totals of every locale, in the order the locales were analysed
+     */
+    Iterable<LocaleTotals> getTotals() {
+        return totals.values();
+    }
+
+    /**
+     * Writes the totals per locale and the counts per bundle and locale as a JSON object.
+     */
+    void writeJson(Writer out) throws IOException {
+        out.write("{\n  \"project\": " + quote(name) + ",\n  \"keys\": " + keyCount + ",\n  \"locales\": [");
+        String sep = "\n";
+        for (LocaleTotals t : totals.values()) {
+            out.write(sep + "    {\"locale\": " + quote(t.locale) + ", \"coverage\": "
+                    + String.format(Locale.ROOT, "%.2f", t.getCoverage()) + ", \"translated\": " + t.translated
+                    + ", \"missing\": " + t.missing + ", \"additional\": " + t.additional + ", \"nonTranslated\": "
+                    + t.nonTranslated + ", \"placeholderMismatches\": " + t.mismatched
+                    + ", \"inherited\": " + t.inherited + "}");
+            sep = ",\n";
+        }
+        out.write("\n  ],\n  \"bundles\": [");
+        sep = "\n";
+        for (BundleStatus status : statuses) {
+            out.write(sep + "    {\"path\": " + quote(status.getPath()) + ", \"keys\": " + status.getKeyCount()
+                    + ", \"locales\": {");
+            String localeSep = "";
+            for (LocaleDiff diff : status.getDiffs()) {
+                out.write(localeSep + quote(diff.getLocale()) + ": {\"present\": " + diff.isPresent()
+                        + ", \"missing\": " + diff.getMissingCount() + ", \"additional\": "
+                        + diff.getAdditionalCount() + ", \"nonTranslated\": " + diff.getNonTranslatedCount()
+                        + ", \"placeholderMismatches\": " + diff.getMismatchedCount() + ", \"inherited\": "
+                        + diff.getInheritedCount() + "}");
+                localeSep = ", ";
+            }
+            out.write("}}");
+            sep = ",\n";
+        }
+        out.write("\n  ]\n}\n");
+    }
+
+    /**
+     * Writes one line per bundle and locale.
+     */
+    void writeCsv(Writer out) throws IOException {
+        out.write(
+                "project,bundle,locale,keys,present,translated,missing,additional,nonTranslated,placeholderMismatches,inherited\n");
+        for (BundleStatus status : statuses) {
+            for (LocaleDiff diff : status.getDiffs()) {
+                out.write(csv(name)
+                        + ','
+                        + csv(status.getPath())
+                        + ','
+                        + csv(diff.getLocale())
+                        + ','
+                        + status.getKeyCount()
+                        + ','
+                        + diff.isPresent()
+                        + ','
+                        + diff.getTranslatedCount()
+                        + ','
+                        + diff.getMissingCount()
+                        + ','
+                        + diff.getAdditionalCount()
+                        + ','
+                        + diff.getNonTranslatedCount()
+                        + ','
+                        + diff.getMismatchedCount()
+                        + ','
+                        + diff.getInheritedCount()
+                        + '\n');
+            }
+        }
+    }
+
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * The summed counts of one locale.
+     */
+    class LocaleTotals {
+
+        private final String locale;
+
+        private int translated;
+
+        private int missing;
+
+        private int additional;
+
+        private int nonTranslated;
+
+        private int mismatched;
+
+        private int inherited;
+
+        LocaleTotals(String locale) {
+            this.locale = locale;
+        }
+
+        String getLocale() {
+            return locale;
+        }
+
+        int getTranslated() {
+            return translated;
+        }
+
+        int getMissing() {
+            return missing;
+        }
+
+        int getAdditional() {
+            return additional;
+        }
+
+        int getNonTranslated() {
+            return nonTranslated;
+        }
+
+        int getMismatched() {
+            return mismatched;
+        }
+
+        int getInherited() {
+            return inherited;
+        }
+
+        /**
+         * @return the translated keys in percent of all default keys, 100 if there are no keys
+         */
+        double getCoverage() {
+            return keyCount == 0 ? 100 : translated * 100.0 / keyCount;
+        }
+    }
+}
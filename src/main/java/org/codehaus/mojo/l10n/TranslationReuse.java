@@ -0,0 +1,389 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the default values of all bundles, to find translations that can be reused across bundles: a
+ * missing or non-translated key whose default value, e.g. "Cancel", is already translated for the locale in
+ * another bundle. Values are compared after trimming them and collapsing inner runs of whitespace.
+ * <p>
+ * Only fingerprints and primitive arrays are kept. The default keys of all bundles are numbered one after
+ * another, and every number has the fingerprint of its key and the group of its normalized default value.
+ * For every locale, the translated and untranslated keys are bit sets over these numbers, and each group has
+ * the first key that is translated, and the first one in another bundle than that key, so that a key is never
+ * given a translation from its own bundle. The translations themselves are read from the localized files when they
+ * are listed.
+ *
+ * @since 1.2.1
+ */
+final class TranslationReuse {
+
+    private static final int NONE = -1;
+
+    private final List<String> locales;
+
+    private final Map<File, Integer> bundleIndexes;
+
+    /**
+     * The path of every bundle, by bundle index.
+     */
+    private final String[] paths;
+
+    /**
+     * The localized files of every bundle, by bundle index.
+     */
+    private final List<Map<String, File>> localizedFiles;
+
+    /**
+     * The number of the first key of every bundle, by bundle index, followed by the number of keys.
+     */
+    private final int[] starts;
+
+    private final long[] keyHashes;
+
+    /**
+     * The group of the default value of every key, or {@link #NONE} for an empty value.
+     */
+    private final int[] groups;
+
+    /**
+     * The missing or non-translated keys, by locale.
+     */
+    private final BitSet[] untranslated;
+
+    /**
+     * The first translated key of every group, or {@link #NONE}, by locale.
+     */
+    private final int[][] firstTranslated;
+
+    /**
+     * The first translated key of every group in another bundle than the first translated key, or
+     * {@link #NONE}, by locale.
+     */
+    private final int[][] otherTranslated;
+
+    /**
+     * The number of keys with a reusable translation, by bundle index and locale.
+     */
+    private final int[] counts;
+
+    private TranslationReuse(
+            List<String> locales,
+            Map<File, Integer> bundleIndexes,
+            String[] paths,
+            List<Map<String, File>> localizedFiles,
+            int[] starts,
+            long[] keyHashes,
+            int[] groups,
+            BitSet[] untranslated,
+            int[][] firstTranslated,
+            int[][] otherTranslated) {
+        this.locales = locales;
+        this.bundleIndexes = bundleIndexes;
+        this.paths = paths;
+        this.localizedFiles = localizedFiles;
+        this.starts = starts;
+        this.keyHashes = keyHashes;
+        this.groups = groups;
+        this.untranslated = untranslated;
+        this.firstTranslated = firstTranslated;
+        this.otherTranslated = otherTranslated;
+        counts = new int[paths.length * locales.size()];
+        for (int l = 0; l < locales.size(); l++) {
+            for (int n = untranslated[l].nextSetBit(0); n >= 0; n = untranslated[l].nextSetBit(n + 1)) {
+                if (getSource(n, l) != NONE) {
+                    counts[bundleOf(n) * locales.size() + l]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes the default values of the analysed bundles, from the value fingerprints computed when they were
+     * analysed. No file is read.
+     *
+     * @param statuses the analysed default bundles
+     * @param locales the analysed locales
+     * @param localizedFiles the localized siblings of every default bundle by locale
+     */
+    static TranslationReuse build(
+            Iterable<BundleStatus> statuses, List<String> locales, Map<File, Map<String, File>> localizedFiles) {
+        Map<File, Integer> bundleIndexes = new HashMap<>();
+        List<String> paths = new ArrayList<>();
+        List<Map<String, File>> files = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        BitSet[] translated = new BitSet[locales.size()];
+        BitSet[] untranslated = new BitSet[locales.size()];
+        for (int l = 0; l < locales.size(); l++) {
+            translated[l] = new BitSet();
+            untranslated[l] = new BitSet();
+        }
+        long[] keyHashes = new long[1024];
+        long[] valueHashes = new long[1024];
+        int total = 0;
+        for (BundleStatus status : statuses) {
+            bundleIndexes.put(status.getFile(), paths.size());
+            paths.add(status.getPath());
+            Map<String, File> siblings = localizedFiles.get(status.getFile());
+            files.add(siblings != null ? siblings : new HashMap<>());
+            starts.add(total);
+            for (int l = 0; l < locales.size(); l++) {
+                LocaleDiff diff = status.getDiff(locales.get(l));
+                if (diff != null) {
+                    copy(diff.getTranslatedIndexes(), translated[l], total);
+                    copy(diff.getUntranslatedIndexes(), untranslated[l], total);
+                }
+            }
+            if (total + status.getKeyCount() > keyHashes.length) {
+                int length = Math.max(keyHashes.length * 2, total + status.getKeyCount());
+                keyHashes = Arrays.copyOf(keyHashes, length);
+                valueHashes = Arrays.copyOf(valueHashes, length);
+            }
+            String[] keys = status.getKeys();
+            for (int k = 0; k < keys.length; k++) {
+                keyHashes[total + k] = Fingerprint.of(keys[k]);
+            }
+            System.arraycopy(status.getValueHashes(), 0, valueHashes, total, keys.length);
+            total += keys.length;
+        }
+        starts.add(total);
+        keyHashes = Arrays.copyOf(keyHashes, total);
+
+        // Number the distinct values in an open addressing table of their fingerprints
+        int[] groups = new int[total];
+        int capacity = Integer.highestOneBit(Math.max(4, total * 2 - 1)) << 1;
+        long[] slotHashes = new long[capacity];
+        int[] slotGroups = new int[capacity];
+        int mask = capacity - 1;
+        int groupCount = 0;
+        for (int n = 0; n < total; n++) {
+            long valueHash = valueHashes[n];
+            if (valueHash == 0) {
+                groups[n] = NONE;
+                continue;
+            }
+            int slot = (int) (valueHash ^ (valueHash >>> 32)) & mask;
+            while (slotGroups[slot] != 0 && slotHashes[slot] != valueHash) {
+                slot = (slot + 1) & mask;
+            }
+            if (slotGroups[slot] == 0) {
+                slotHashes[slot] = valueHash;
+                slotGroups[slot] = ++groupCount;
+            }
+            groups[n] = slotGroups[slot] - 1;
+        }
+
+        int[] bundleStarts = new int[starts.size()];
+        for (int i = 0; i < bundleStarts.length; i++) {
+            bundleStarts[i] = starts.get(i);
+        }
+
+        int[][] firstTranslated = new int[locales.size()][];
+        int[][] otherTranslated = new int[locales.size()][];
+        for (int l = 0; l < locales.size(); l++) {
+            int[] first = new int[groupCount];
+            int[] other = new int[groupCount];
+            Arrays.fill(first, NONE);
+            Arrays.fill(other, NONE);
+            for (int k = translated[l].nextSetBit(0); k >= 0; k = translated[l].nextSetBit(k + 1)) {
+                int group = groups[k];
+                if (group == NONE) {
+                    continue;
+                }
+                if (first[group] == NONE) {
+                    first[group] = k;
+                } else if (other[group] == NONE && bundleOf(bundleStarts, k) != bundleOf(bundleStarts, first[group])) {
+                    other[group] = k;
+                }
+            }
+            firstTranslated[l] = first;
+            otherTranslated[l] = other;
+        }
+        return new TranslationReuse(
+                locales,
+                bundleIndexes,
+                paths.toArray(new String[0]),
+                files,
+                bundleStarts,
+                keyHashes,
+                groups,
+                untranslated,
+                firstTranslated,
+                otherTranslated);
+    }
+
+    private static void copy(BitSet from, BitSet to, int offset) {
+        for (int i = from.nextSetBit(0); i >= 0; i = from.nextSetBit(i + 1)) {
+            to.set(offset + i);
+        }
+    }
+
+    /**
+     * @return the key of another bundle that translates the same default value for the locale, or
+     *         {@link #NONE}
+     */
+    private int getSource(int key, int locale) {
+        int group = groups[key];
+        if (group == NONE) {
+            return NONE;
+        }
+        int first = firstTranslated[locale][group];
+        return first != NONE && bundleOf(starts, first) == bundleOf(starts, key)
+                ? otherTranslated[locale][group]
+                : first;
+    }
+
+    private int bundleOf(int key) {
+        return bundleOf(starts, key);
+    }
+
+    /**
+     * @param starts the number of the first key of every bundle, followed by the number of keys
+     */
+    private static int bundleOf(int[] starts, int key) {
+        int i = Arrays.binarySearch(starts, key);
+        if (i < 0) {
+            return -i - 2;
+        }
+        // Skip the bundles without keys that start at the same number
+        while (starts[i + 1] == key) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the number of missing or non-translated keys of the bundle that have a reusable translation
+     */
+    int getCount(BundleStatus status, String locale) {
+        Integer bundle = bundleIndexes.get(status.getFile());
+        int l = locales.indexOf(locale);
+        return bundle != null && l >= 0 ? counts[bundle * locales.size() + l] : 0;
+    }
+
+    /**
+     * @return the number of missing or non-translated keys of all bundles that have a reusable translation
+     */
+    int getTotalCount() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Lists the missing or non-translated keys of a bundle that have a reusable translation, reading the
+     * translations from the localized files of the bundles they come from.
+     *
+     * @return the keys in key order, without those whose translation could no longer be found
+     * @throws IOException if a localized file cannot be read
+     */
+    List<Reuse> find(BundleStatus status, String locale) throws IOException {
+        List<Reuse> found = new ArrayList<>();
+        Integer bundle = bundleIndexes.get(status.getFile());
+        int l = locales.indexOf(locale);
+        if (bundle == null || l < 0) {
+            return found;
+        }
+        int start = starts[bundle];
+        int end = starts[bundle + 1];
+        Map<Integer, Map<Long, List<Reuse>>> bySource = new HashMap<>();
+        for (int k = untranslated[l].nextSetBit(start); k >= 0 && k < end; k = untranslated[l].nextSetBit(k + 1)) {
+            int source = getSource(k, l);
+            if (source != NONE) {
+                int sourceBundle = bundleOf(source);
+                Reuse reuse = new Reuse(status.getKeys()[k - start], paths[sourceBundle]);
+                found.add(reuse);
+                bySource.computeIfAbsent(sourceBundle, b -> new HashMap<>())
+                        .computeIfAbsent(keyHashes[source], h -> new ArrayList<>())
+                        .add(reuse);
+            }
+        }
+
+        // Each bundle the translations come from is read once
+        for (Map.Entry<Integer, Map<Long, List<Reuse>>> entry : bySource.entrySet()) {
+            File file = localizedFiles.get(entry.getKey()).get(locale);
+            if (file == null) {
+                continue;
+            }
+            Map<Long, List<Reuse>> wanted = entry.getValue();
+            BundleFormats.parse(file.getName(), Files.readAllBytes(file.toPath()), (key, value) -> {
+                List<Reuse> reuses = wanted.get(Fingerprint.of(key));
+                if (reuses != null) {
+                    for (Reuse reuse : reuses) {
+                        reuse.sourceKey = key;
+                        reuse.translation = value.toString();
+                    }
+                }
+            });
+        }
+        found.removeIf(reuse -> reuse.translation == null);
+        return found;
+    }
+
+    /**
+     * A missing or non-translated key and a translation of its default value in another bundle.
+     */
+    static class Reuse {
+
+        private final String key;
+
+        private final String sourcePath;
+
+        private String sourceKey;
+
+        private String translation;
+
+        Reuse(String key, String sourcePath) {
+            this.key = key;
+            this.sourcePath = sourcePath;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the path of the bundle the translation comes from
+         */
+        String getSourcePath() {
+            return sourcePath;
+        }
+
+        String getSourceKey() {
+            return sourceKey;
+        }
+
+        String getTranslation() {
+            return translation;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.codehaus.mojo.l10n;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Reads the entries of an XML properties file one at a time, following the format of
+ * {@link java.util.Properties#loadFromXML(java.io.InputStream)}. The file is read with a streaming parser,
+ * and its document type is neither loaded nor validated.
+ *
+ * @since 1.2.1
+ */
+final class XmlPropertiesParser {
+
+    private static final XMLInputFactory FACTORY;
+
+    static {
+        FACTORY = XMLInputFactory.newInstance();
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    private XmlPropertiesParser() {}
+
+    /**
+     * Parses the contents of a file.
+     *
+     * @return <code>false</code> if the root element is not <code>&lt;properties&gt;</code>, e.g. of a
+     *         configuration file, which is read no further
+     * @throws IOException if the file is not well-formed
+     */
+    static boolean parse(byte[] content, BundleFormat.Handler handler) throws IOException {
+        try {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(new ByteArrayInputStream(content));
+            try {
+                for (int event = reader.next(); event != XMLStreamConstants.START_ELEMENT; event = reader.next()) {
+                    if (event == XMLStreamConstants.END_DOCUMENT) {
+                        throw new IOException("No root element");
+                    }
+                }
+                if (!"properties".equals(reader.getLocalName())) {
+                    return false;
+                }
+                while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    if ("entry".equals(reader.getLocalName())) {
+                        String key = reader.getAttributeValue(null, "key");
+                        if (key == null) {
+                            throw new IOException("Element <entry> without key at line "
+                                    + reader.getLocation().getLineNumber());
+                        }
+                        handler.property(key, reader.getElementText());
+                    } else {
+                        // <comment>
+                        reader.getElementText();
+                    }
+                }
+                return true;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.codehaus.mojo.l10n.runtime;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * Loads the bundles written by the <code>compile</code> goal of the l10n-maven-plugin, and falls back to
+ * classes and properties files for bundles that were not compiled:
+ *
+ * <pre>
+ * ResourceBundle bundle = ResourceBundle.getBundle("org.example.Messages", locale, CompiledBundleControl.INSTANCE);
+ * </pre>
+ *
+ * Compiled bundles found in a directory are memory mapped, those in an archive are read into memory once.
+ * This class only depends on the JDK.
+ *
+ * @since 1.2.1
+ */
+public class CompiledBundleControl extends ResourceBundle.Control {
+
+    /**
+     * The format name of compiled bundles.
+     */
+    public static final String FORMAT_COMPILED = "l10n.compiled";
+
+    /**
+     * The file suffix of compiled bundles.
+     */
+    public static final String SUFFIX = "l10nb";
+
+    /**
+     * A shared instance.
+     */
+    public static final CompiledBundleControl INSTANCE = new CompiledBundleControl();
+
+    private static final List<String> FORMATS;
+
+    static {
+        List<String> formats = new ArrayList<>();
+        formats.add(FORMAT_COMPILED);
+        formats.addAll(FORMAT_DEFAULT);
+        FORMATS = Collections.unmodifiableList(formats);
+    }
+
+    @Override
+    public List<String> getFormats(String baseName) {
+        if (baseName == null) {
+            throw new NullPointerException();
+        }
+        return FORMATS;
+    }
+
+    @Override
+    public ResourceBundle newBundle(String baseName, Locale locale, String format, ClassLoader loader, boolean reload)
+            throws IllegalAccessException, InstantiationException, IOException {
+        if (!FORMAT_COMPILED.equals(format)) {
+            return super.newBundle(baseName, locale, format, loader, reload);
+        }
+        String resourceName = toResourceName(toBundleName(baseName, locale), SUFFIX);
+        URL url = loader.getResource(resourceName);
+        if (url == null) {
+            return null;
+        }
+        return new CompiledResourceBundle(read(url, reload));
+    }
+
+    private static ByteBuffer read(URL url, boolean reload) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException ex) {
+                // Read it as any other URL
+            }
+        }
+        URLConnection connection = url.openConnection();
+        if (reload) {
+            connection.setUseCaches(false);
+        }
+        try (InputStream in = connection.getInputStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                bytes.write(buf, 0, n);
+            }
+            return ByteBuffer.wrap(bytes.toByteArray());
+        }
+    }
+}
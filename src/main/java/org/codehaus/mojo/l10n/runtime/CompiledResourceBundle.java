@@ -0,0 +1,216 @@
+package org.codehaus.mojo.l10n.runtime;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * A resource bundle read from a file written by the <code>compile</code> goal. The file is used in place, e.g.
+ * memory mapped, and only the values that are asked for are decoded. Keys are looked up through a minimal
+ * perfect hash, so a lookup reads one displacement, one slot and the bytes of one key.
+ * <p>
+ * The file holds, as big-endian integers: a magic number, the format version, the hash seed, the number of
+ * keys <code>n</code>, the number of buckets <code>b</code>, <code>b</code> displacements, <code>n</code>
+ * slots of a key and a value reference, and a pool of length-prefixed UTF-8 strings that the references
+ * point into. Equal values share one string. The keys of the parent locales are already part of the file.
+ * The file ends with a fingerprint of the files it was compiled from, which is not read at runtime.
+ *
+ * @since 1.2.1
+ */
+public class CompiledResourceBundle extends ResourceBundle {
+
+    /**
+     * The magic number at the start of every compiled bundle.
+     */
+    public static final int MAGIC = 0x4c313043;
+
+    /**
+     * The version of the file format.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 20;
+
+    private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+    private final ByteBuffer buffer;
+
+    private final int seed;
+
+    private final int keyCount;
+
+    private final int bucketCount;
+
+    private final int slotStart;
+
+    private final int poolStart;
+
+    /**
+     * The values decoded so far, by slot.
+     */
+    private final String[] values;
+
+    /**
+     * @param buffer the contents of a compiled bundle, which must not change while the bundle is used
+     * @throws IllegalArgumentException if the buffer does not hold a compiled bundle of this format version
+     */
+    public CompiledResourceBundle(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not a compiled resource bundle of format version " + FORMAT_VERSION);
+        }
+        this.buffer = buffer;
+        seed = buffer.getInt(8);
+        keyCount = buffer.getInt(12);
+        bucketCount = buffer.getInt(16);
+        slotStart = HEADER_SIZE + 4 * bucketCount;
+        poolStart = slotStart + 8 * keyCount;
+        values = new String[keyCount];
+    }
+
+    /**
+     * Hashes a key for the perfect hash of a compiled bundle.
+     *
+     * @param key the key
+     * @param seed the seed of the bundle
+     * @return a 64-bit hash, of which the upper half selects the bucket
+     */
+    public static long hash(CharSequence key, int seed) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * @return the bucket of a key hash
+     */
+    public static int bucket(long hash, int bucketCount) {
+        return (int) ((hash >>> 32) % bucketCount);
+    }
+
+    /**
+     * @return the slot of a key hash for a non-negative displacement
+     */
+    public static int slot(long hash, int displacement, int keyCount) {
+        return (int) Long.remainderUnsigned(mix(hash + (displacement + 1L) * GOLDEN), keyCount);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    protected Object handleGetObject(String key) {
+        if (keyCount == 0) {
+            return null;
+        }
+        long h = hash(key, seed);
+        int displacement = buffer.getInt(HEADER_SIZE + 4 * bucket(h, bucketCount));
+        int slot = displacement < 0 ? -displacement - 1 : slot(h, displacement, keyCount);
+        if (!matches(poolStart + buffer.getInt(slotStart + 8 * slot), key)) {
+            return null;
+        }
+        String value = values[slot];
+        if (value == null) {
+            value = decode(poolStart + buffer.getInt(slotStart + 8 * slot + 4));
+            values[slot] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public Enumeration<String> getKeys() {
+        Set<String> keys = new HashSet<>(handleKeySet());
+        if (parent != null) {
+            keys.addAll(parent.keySet());
+        }
+        return Collections.enumeration(keys);
+    }
+
+    @Override
+    protected Set<String> handleKeySet() {
+        Set<String> keys = new HashSet<>();
+        for (int slot = 0; slot < keyCount; slot++) {
+            keys.add(decode(poolStart + buffer.getInt(slotStart + 8 * slot)));
+        }
+        return keys;
+    }
+
+    private String decode(int offset) {
+        int length = buffer.getInt(offset);
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the UTF-8 string at the offset with the key without decoding it.
+     */
+    private boolean matches(int offset, String key) {
+        int end = offset + 4 + buffer.getInt(offset);
+        int p = offset + 4;
+        for (int i = 0; i < key.length(); i++) {
+            int c = key.charAt(i);
+            if (Character.isHighSurrogate((char) c) && i + 1 < key.length()) {
+                c = Character.toCodePoint((char) c, key.charAt(++i));
+            }
+            if (c < 0x80) {
+                if (p + 1 > end || buffer.get(p++) != (byte) c) {
+                    return false;
+                }
+            } else if (c < 0x800) {
+                if (p + 2 > end
+                        || buffer.get(p++) != (byte) (0xc0 | c >> 6)
+                        || buffer.get(p++) != (byte) (0x80 | c & 0x3f)) {
+                    return false;
+                }
+            } else if (c < 0x10000) {
+                if (p + 3 > end
+                        || buffer.get(p++) != (byte) (0xe0 | c >> 12)
+                        || buffer.get(p++) != (byte) (0x80 | c >> 6 & 0x3f)
+                        || buffer.get(p++) != (byte) (0x80 | c & 0x3f)) {
+                    return false;
+                }
+            } else if (p + 4 > end
+                    || buffer.get(p++) != (byte) (0xf0 | c >> 18)
+                    || buffer.get(p++) != (byte) (0x80 | c >> 12 & 0x3f)
+                    || buffer.get(p++) != (byte) (0x80 | c >> 6 & 0x3f)
+                    || buffer.get(p++) != (byte) (0x80 | c & 0x3f)) {
+                return false;
+            }
+        }
+        return p == end;
+    }
+}